@@ -0,0 +1,9 @@
+#!/bin/sh
+# Compiles the stylesheets in resources/css into binary stylesheets (.bss) next to them, which the application loads
+# instead of the .css files, as long as they are not older (see AppTemplate.initStylesheet()). Run this whenever a
+# stylesheet changes, with the JDK 8 the application runs on, since the binary format depends on the JavaFX version,
+# e.g., JAVA_HOME=/path/to/jdk1.8 ./make-bss.sh
+set -e
+cd "$(dirname "$0")"
+JAVAPACKAGER="${JAVA_HOME:+$JAVA_HOME/bin/}javapackager"
+"$JAVAPACKAGER" -createbss -srcdir resources/css -outdir resources/css
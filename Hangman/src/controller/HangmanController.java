@@ -1,25 +1,26 @@
 package controller;
 
 import apptemplate.AppTemplate;
+import components.AppFileComponent;
 import data.GameData;
+import data.GameHistory;
+import data.GameRecord;
+import data.GameSnapshot;
+import gui.GameView;
 import gui.Workspace;
 import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
 import javafx.event.EventHandler;
 import javafx.geometry.Insets;
-import javafx.scene.canvas.*;
-import javafx.scene.canvas.Canvas;
 import javafx.scene.control.Button;
-import javafx.scene.control.Label;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.*;
-import javafx.scene.paint.Color;
 import javafx.scene.paint.Paint;
-import javafx.scene.text.Text;
 import javafx.stage.FileChooser;
 import javafx.stage.FileChooser.ExtensionFilter;
 import propertymanager.PropertyManager;
+import ui.AppGUI;
 import ui.AppMessageDialogSingleton;
 import ui.YesNoCancelDialogSingleton;
 
@@ -28,8 +29,9 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static settings.AppPropertyType.*;
 import static settings.InitializationParameters.APP_WORKDIR_PATH;
@@ -47,20 +49,33 @@ public class HangmanController implements FileController {
         ENDED
     }
 
-    private AppTemplate appTemplate; // shared reference to the application
-    private GameData    gamedata;    // shared reference to the game being played, loaded or saved
-    private GameState   gamestate;   // the state of the game being shown in the workspace
-    private Text[]      progress;    // reference to the text area for the word
-    private FlowPane    alphabet;    // reference to the keyboard
-    private HBox    guessedLetters;  // reference to the guessed letters
-    private BorderPane  figurePane;  // container to display the namesake graphic of the (potentially) hanging person
-    private Canvas      canvas;      // canvas to display the namesake graphic of the (potentially) hanging person
-    private Button      hintButton;  // reference to the hint button
-    private boolean     success;     // whether or not player was successful
-    private int         discovered;  // the number of letters already discovered
-    private Button      gameButton;  // shared reference to the "start game" button
-    private Label       remains;     // dynamically updated label that indicates the number of remaining guesses
-    private Path        workFile;
+    private static final long HISTORY_CLOSE_TIMEOUT_MS = 2000; // how long exiting waits for the history to be written
+
+    /**
+     * The state of one session, i.e., of one of the games shown in the workspace at once, each on its own board. The
+     * game data of a session is its own, but the word corpus from which the games are drawn is shared by every session.
+     */
+    private static final class GameSession {
+        private final int            index;                                // the index of the session, and so of its board
+        private       GameData       gamedata;                             // the game being played, loaded or saved
+        private       GameState      gamestate = GameState.UNINITIALIZED;  // the state of the game
+        private       boolean        success;                              // whether or not player was successful
+        private       boolean        missedRevealed;                       // whether the letters the player missed are shown
+        private       boolean        playing;                              // whether the game takes guesses
+        private       boolean        startable = true;                     // whether a game may be started
+        private       Path           workFile;
+        private       AnimationTimer timer;                                // checks on each pulse whether the game is over
+
+        private GameSession(int index) {
+            this.index = index;
+        }
+    }
+
+    private AppTemplate       appTemplate; // shared reference to the application
+    private List<GameSession> sessions;    // the state of each session, set up once the application has started
+    private GameSession       session;     // the session selected, to which input and the file controls apply
+    private Button            gameButton;  // shared reference to the "start game" button
+    private GameHistory       history;     // the log of every completed game, opened when the first game ends
 
     public HangmanController(AppTemplate appTemplate, Button gameButton) {
         this(appTemplate);
@@ -69,10 +84,42 @@ public class HangmanController implements FileController {
 
     public HangmanController(AppTemplate appTemplate) {
         this.appTemplate = appTemplate;
-        this.gamestate = GameState.UNINITIALIZED;
+        this.session = new GameSession(0);
+    }
+
+    /** @return the state of each session, which is set up the first time it is asked for. */
+    private List<GameSession> getSessions() {
+        if (sessions == null) {
+            int count = Math.max(1, appTemplate.getSessions().size());
+            sessions = new ArrayList<>(count);
+            sessions.add(session);
+            for (int i = 1; i < count; i++)
+                sessions.add(new GameSession(i));
+        }
+        return sessions;
+    }
+
+    /**
+     * Selects the session to which input and the file controls are to apply, e.g., when its tab is selected.
+     *
+     * @param index The index of the session.
+     */
+    public void selectSession(int index) {
+        GameSession selected = getSessions().get(index);
+        if (selected == session)
+            return;
+        appTemplate.selectSession(index);
+        session = selected;
+        if (appTemplate.getGUI() != null)
+            appTemplate.getGUI().updateWorkspaceToolbar(session.gamestate.equals(GameState.INITIALIZED_MODIFIED));
+        if (session.startable)
+            enableGameButton();
+        else
+            disableGameButton();
     }
 
     public void enableGameButton() {
+        session.startable = true;
         if (gameButton == null) {
             Workspace workspace = (Workspace) appTemplate.getWorkspaceComponent();
             gameButton = workspace.getStartGame();
@@ -81,6 +128,7 @@ public class HangmanController implements FileController {
     }
 
     public void disableGameButton() {
+        session.startable = false;
         if (gameButton == null) {
             Workspace workspace = (Workspace) appTemplate.getWorkspaceComponent();
             gameButton = workspace.getStartGame();
@@ -89,11 +137,29 @@ public class HangmanController implements FileController {
     }
 
     public void setGameState(GameState gamestate) {
-        this.gamestate = gamestate;
+        setGameState(session, gamestate);
     }
 
+    /** Sets the state of the game of a session, which only shows in the toolbar if the session is the one selected. */
+    private void setGameState(GameSession session, GameState gamestate) {
+        if (session.gamestate != gamestate && session == this.session && appTemplate.getGUI() != null)
+            appTemplate.getGUI().updateWorkspaceToolbar(gamestate.equals(GameState.INITIALIZED_MODIFIED));
+        session.gamestate = gamestate;
+    }
+
+    /** @return the state of the game of the session selected. */
     public GameState getGamestate() {
-        return this.gamestate;
+        return session.gamestate;
+    }
+
+    /** @return the log of every completed game, which is opened in the background the first time it is asked for. */
+    public GameHistory getHistory() {
+        if (history == null) {
+            PropertyManager propertyManager = PropertyManager.getManager();
+            Path            appDirPath      = Paths.get(propertyManager.getPropertyValue(APP_TITLE)).toAbsolutePath();
+            history = new GameHistory(appDirPath.resolve(APP_WORKDIR_PATH.getParameter()).resolve(GameHistory.HISTORY_DIRECTORY));
+        }
+        return history;
     }
 
     /**
@@ -105,358 +171,260 @@ public class HangmanController implements FileController {
      * is to write (and use) the GameData#init() method.
      */
     public void start() {
-        gamedata = (GameData) appTemplate.getDataComponent();
-        success = false;
-        discovered = 0;
-
-        Workspace gameWorkspace = (Workspace) appTemplate.getWorkspaceComponent();
-
-        gamedata.init();
-        setGameState(GameState.INITIALIZED_UNMODIFIED);
-        HBox remainingGuessBox = gameWorkspace.getRemainingGuessBox();
-        guessedLetters        = (HBox) gameWorkspace.getGameTextsPane().getChildren().get(1);
-        alphabet              = gameWorkspace.getAlphabetPane();
-        hintButton            = gameWorkspace.getHintButton();
-        canvas                = gameWorkspace.getCanvas();
-        remains = new Label(Integer.toString(GameData.TOTAL_NUMBER_OF_GUESSES_ALLOWED));
-        remainingGuessBox.getChildren().addAll(new Label("Remaining Guesses: "), remains);
-        initWordGraphics(guessedLetters);
-        initAlphabetGraphics(alphabet);
-        gamedata.setUsedHint(false);
-        initHintButton(hintButton);
-        play();
-    }
-
-    private void end() {
-        appTemplate.getGUI().getPrimaryScene().setOnKeyTyped(null);
-        gameButton.setDisable(true);
-        setGameState(GameState.ENDED);
-        appTemplate.getGUI().updateWorkspaceToolbar(gamestate.equals(GameState.INITIALIZED_MODIFIED));
+        GameSession session = this.session;
+        session.gamedata = (GameData) appTemplate.getDataComponent();
+        session.success = false;
+        session.missedRevealed = false;
+
+        session.gamedata.init();
+        session.gamedata.setUsedHint(false);
+        setGameState(session, GameState.INITIALIZED_UNMODIFIED);
+        render(session);
+        play(session);
+    }
+
+    private void end(GameSession session) {
+        session.playing = false;
+        if (session == this.session)
+            disableGameButton();
+        else
+            session.startable = false;
+        setGameState(session, GameState.ENDED);
+        getHistory().append(GameRecord.of(session.gamedata, session.success));
+        session.missedRevealed = !session.success; // the letters missed are shown along with the end of the game
+        render(session);                           // which disables the hint button as well
+        // the game ends during a pulse, when no dialog may be shown, so the end of the game is announced right after
         Platform.runLater(() -> {
             PropertyManager           manager    = PropertyManager.getManager();
             AppMessageDialogSingleton dialog     = AppMessageDialogSingleton.getSingleton();
-            String                    endMessage = manager.getPropertyValue(success ? GAME_WON_MESSAGE : GAME_LOST_MESSAGE);
+            String                    endMessage = manager.getPropertyValue(session.success ? GAME_WON_MESSAGE : GAME_LOST_MESSAGE);
             if (dialog.isShowing())
                 dialog.toFront();
             else
                 dialog.show(manager.getPropertyValue(GAME_OVER_TITLE), endMessage);
-            if (!success) {
-                illuminateMissedCharacters();
-            }
         });
-        hintButton.setDisable(true);
-    }
-
-    private void initWordGraphics(HBox guessedLetters) {
-        this.restoreWordGraphics(guessedLetters);
-    }
-
-    private void initAlphabetGraphics(FlowPane alphabetPane) {
-        alphabet.getChildren().clear();
-        for (int i = 0; i < 26; i++) {
-            StackPane sp = new StackPane();
-            sp.setPrefWidth(40);
-            sp.setPrefHeight(40);
-            sp.setBorder(new Border(new BorderStroke(Color.WHITE, BorderStrokeStyle.SOLID, null, null)));
-            Character alphabetChar = (char) (i + 65);
-            Character alphabetCharLower = (char) (alphabetChar + 32);
-            Text letter = new Text(alphabetChar.toString());
-            BackgroundFill backgroundFill = new BackgroundFill(Color.GREENYELLOW, null, null);
-            if (gamedata.getGoodGuesses().contains(alphabetCharLower) ||
-                    gamedata.getBadGuesses().contains(alphabetCharLower)) {
-                backgroundFill = new BackgroundFill(Color.OLIVE, null, null);
-            }
+    }
 
-            sp.setBackground(new Background(backgroundFill));
-            sp.getChildren().addAll(letter);
-            alphabetPane.getChildren().add(sp);
-        }
+    /**
+     * Shows the game of a session as it now stands on its board, at the next pulse, when only what has changed since
+     * it was last shown is updated.
+     *
+     * @param session The session.
+     * @return the view of the game to be shown.
+     */
+    private GameView render(GameSession session) {
+        GameSnapshot game = session.gamedata.getSnapshot();
+        GameView     view = new GameView(game.getTargetWord(), game.getGoodGuesses(), game.getBadGuesses(),
+                                         game.getRemainingGuesses(), hintState(session), session.missedRevealed);
+        ((Workspace) appTemplate.getWorkspaceComponent()).render(session.index, view);
+        return view;
     }
 
-    private void illuminateMissedCharacters() {
-        HBox hbox = (HBox) guessedLetters.getChildren().get(0);
-        for (int i = 0; i < gamedata.getTargetWord().length(); i++) {
-            if (!gamedata.getGoodGuesses().contains(gamedata.getTargetWord().charAt(i))) {
-                StackPane sp = (StackPane) hbox.getChildren().get(i);
-                sp.setBackground(new Background(new BackgroundFill(Color.GRAY, null, null)));
-                progress[i].setText(Character.toString(gamedata.getTargetWord().charAt(i)));
-                progress[i].setVisible(true);
-            }
-        }
+    /** @return whether a hint is on offer for the current game, which is only so for words with many distinct letters. */
+    private static GameView.Hint hintState(GameSession session) {
+        GameData gamedata = session.gamedata;
+        if (Integer.bitCount(GameView.letters(gamedata.getTargetWord())) <= 7)
+            return GameView.Hint.HIDDEN;
+        return gamedata.isUsedHint() || session.gamestate.equals(GameState.ENDED) ? GameView.Hint.DISABLED
+                                                                                  : GameView.Hint.ENABLED;
     }
 
-    private void initHintButton(Button hintButton) {
-        Set<Character> targetWordSet = new HashSet<>();
-        for (int i = 0; i < gamedata.getTargetWord().length(); i++) {
-            targetWordSet.add(gamedata.getTargetWord().charAt(i));
-        }
+    /** Gives the player a hint in the session selected, if one is on offer and has not been used yet. */
+    public void useHint() {
+        if (session.gamedata == null || hintState(session) != GameView.Hint.ENABLED)
+            return;
+        session.gamedata.setUsedHint(true);
+        render(session);
+        applyHint(session.gamedata.getSnapshot());
+    }
 
-        if (targetWordSet.size() > 7) {
-            hintButton.setVisible(true);
-            if (gamedata.isUsedHint()) {
-                hintButton.setDisable(true);
-            }
-            else {
-                // Set event handler using lambda
-                hintButton.setOnMouseClicked(event -> {
-                    gamedata.setUsedHint(true);
-                    applyHint();
-                    hintButton.setDisable(true);
-                });
+    private void applyHint(GameSnapshot game) {
+        // the hint is asked for from a mouse click, not during a pulse, so the dialog may be shown right away
+        char hintChar = 0;
+        for (int i = 0; i < game.getTargetWord().length(); i++) {
+            if (!game.isGuessed(game.getTargetWord().charAt(i))) {
+                hintChar = game.getTargetWord().charAt(i);
+                break;
             }
         }
+        AppMessageDialogSingleton messageDialog = AppMessageDialogSingleton.getSingleton();
+        messageDialog.show("Hint", "The hint letter is " + Character.toString(hintChar));
+        messageDialog.close();
+        // Simulate key press to process hint
+        try {
+            Robot r = new Robot();
+            r.keyPress(java.awt.event.KeyEvent.getExtendedKeyCodeForChar(hintChar));
+            r.keyRelease(java.awt.event.KeyEvent.getExtendedKeyCodeForChar(hintChar));
+        } catch (AWTException e) {
+            // Skip
+        }
     }
 
-    private void applyHint() {
-        Platform.runLater(() -> {
-            char hintChar = 0;
-            for (int i = 0; i < gamedata.getTargetWord().length(); i++) {
-                if (!gamedata.getGoodGuesses().contains(gamedata.getTargetWord().charAt(i))) {
-                    hintChar = gamedata.getTargetWord().charAt(i);
-                    break;
-                }
-            }
-            AppMessageDialogSingleton messageDialog = AppMessageDialogSingleton.getSingleton();
-            messageDialog.show("Hint", "The hint letter is " + Character.toString(hintChar));
-            messageDialog.close();
-            // Simulate key press to process hint
-            try {
-                Robot r = new Robot();
-                r.keyPress(java.awt.event.KeyEvent.getExtendedKeyCodeForChar(hintChar));
-                r.keyRelease(java.awt.event.KeyEvent.getExtendedKeyCodeForChar(hintChar));
-            } catch (AWTException e) {
-                // Skip
-            }
-        });
+    /** Lets the player play the game of the session selected. */
+    public void play() {
+        play(session);
     }
 
-    public void play() {
-        disableGameButton();
-        AnimationTimer timer = new AnimationTimer() {
+    /**
+     * Lets the player play the game of a session. The key handler is the same for every session, and is set once,
+     * here, to pass each guess on to the session selected, and the toolbar is updated whenever the game state changes
+     * (see {@link #setGameState(GameState)}), so that all that is left to do on each pulse is to check whether the
+     * game is over.
+     */
+    private void play(GameSession session) {
+        if (session == this.session) {
+            disableGameButton();
+            appTemplate.getGUI().updateWorkspaceToolbar(session.gamestate.equals(GameState.INITIALIZED_MODIFIED));
+        } else
+            session.startable = false;
+        appTemplate.getGUI().getPrimaryScene().setOnKeyTyped(this::guess);
+        session.playing = true;
+        if (session.timer != null)
+            session.timer.stop();
+        session.timer = new AnimationTimer() {
             @Override
             public void handle(long now) {
-                appTemplate.getGUI().updateWorkspaceToolbar(gamestate.equals(GameState.INITIALIZED_MODIFIED));
-                appTemplate.getGUI().getPrimaryScene().setOnKeyTyped((KeyEvent event) -> {
-                    char guess = event.getCharacter().charAt(0);
-                    guess = Character.toLowerCase(guess);
-                    if (!Character.isAlphabetic(guess)) {
-                        // silently ignore any invalid characters
-                        return;
-                    }
-
-                    if (!alreadyGuessed(guess)) {
-                        boolean goodguess = false;
-                        for (int i = 0; i < progress.length; i++) {
-                            if (gamedata.getTargetWord().charAt(i) == guess) {
-                                progress[i].setVisible(true);
-                                gamedata.addGoodGuess(guess);
-                                goodguess = true;
-                                discovered++;
-                            }
-                        }
-                        if (!goodguess) {
-                            gamedata.addBadGuess(guess);
-                            drawHangman();
-                        }
-
-                        success = (discovered == progress.length);
-                        remains.setText(Integer.toString(gamedata.getRemainingGuesses()));
-
-                        // Update the keyboard
-
-                        StackPane keyboardLetter = (StackPane) alphabet.getChildren().get(guess - 97);
-                        keyboardLetter.setBackground(new Background(new BackgroundFill(Color.OLIVE, null, null)));
-                    }
-                    setGameState(GameState.INITIALIZED_MODIFIED);
-                });
-                if (gamedata.getRemainingGuesses() <= 0 || success)
+                if (session.gamedata.getRemainingGuesses() <= 0 || session.success) {
                     stop();
-            }
-
-            @Override
-            public void stop() {
-                super.stop();
-                end();
+                    end(session);
+                }
             }
         };
-        timer.start();
-    }
-
-    private void restoreGUI() {
-        disableGameButton();
-        Workspace gameWorkspace = (Workspace) appTemplate.getWorkspaceComponent();
-        gameWorkspace.reinitialize();
-
-        guessedLetters = (HBox) gameWorkspace.getGameTextsPane().getChildren().get(1);
-        restoreWordGraphics(guessedLetters);
-
-        alphabet = gameWorkspace.getAlphabetPane();
-        initAlphabetGraphics(alphabet);
-
-        hintButton = gameWorkspace.getHintButton();
-        initHintButton(hintButton);
-
-        canvas = gameWorkspace.getCanvas();
-        drawHangman();
-
-        HBox remainingGuessBox = gameWorkspace.getRemainingGuessBox();
-        remains = new Label(Integer.toString(gamedata.getRemainingGuesses()));
-        remainingGuessBox.getChildren().addAll(new Label("Remaining Guesses: "), remains);
-
-        success = false;
-        play();
-    }
-
-    private void restoreWordGraphics(HBox guessedLetters) {
-        discovered = 0;
-        char[] targetword = gamedata.getTargetWord().toCharArray();
-        HBox hbox = new HBox();
-        StackPane[] stackPanes = new StackPane[targetword.length];
-        progress = new Text[targetword.length];
-        for (int i = 0; i < progress.length; i++) {
-            stackPanes[i] = new StackPane();
-            stackPanes[i].setBackground(new Background(new BackgroundFill(Color.WHITE, null, null)));
-            stackPanes[i].setPrefWidth(20);
-            stackPanes[i].setPrefHeight(20);
-            progress[i] = new Text(Character.toString(targetword[i]));
-            progress[i].setVisible(gamedata.getGoodGuesses().contains(progress[i].getText().charAt(0)));
-            if (progress[i].isVisible())
-                discovered++;
-            stackPanes[i].getChildren().addAll(progress[i]);
+        session.timer.start();
+    }
+
+    private void restoreGUI(GameSession session) {
+        session.success = false;
+        session.missedRevealed = false;
+        render(session);
+        play(session);
+    }
+
+    private void guess(KeyEvent event) {
+        GameSession session = this.session;
+        if (!session.playing)
+            return;
+        long received = System.nanoTime();
+        char guess    = event.getCharacter().charAt(0);
+        guess = Character.toLowerCase(guess);
+        if (!Character.isAlphabetic(guess)) {
+            // silently ignore any invalid characters
+            return;
+        }
+
+        GameData gamedata = session.gamedata;
+        if (gamedata.guess(guess)) {
+            session.success = gamedata.getSnapshot().isSolved();
+            render(session);
+            appTemplate.getWorkspaceComponent().inputHandled(received);
         }
-        hbox.getChildren().addAll(stackPanes);
-        hbox.setSpacing(4);
-        guessedLetters.getChildren().addAll(hbox);
-    }
-
-    private boolean alreadyGuessed(char c) {
-        return gamedata.getGoodGuesses().contains(c) || gamedata.getBadGuesses().contains(c);
-    }
-
-    private void drawHangman() {
-        GraphicsContext gc = canvas.getGraphicsContext2D();
-        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
-        gc.setFill(Color.BLACK);
-        gc.setLineWidth(5);
-        int badGuesses = gamedata.getBadGuesses().size();
-        if (badGuesses > 0)
-            gc.strokeLine(50, 300, 200, 300);
-        if (badGuesses > 1)
-            gc.strokeLine(50, 300, 50, 0);
-        if (badGuesses > 2)
-            gc.strokeLine(50, 0, 150, 0);
-        if (badGuesses > 3)
-            gc.strokeLine(150, 0, 150, 40);
-        if (badGuesses > 4)
-            gc.strokeOval(130, 40, 40, 40);
-        if (badGuesses > 5)
-            gc.strokeLine(150, 80, 150, 180);
-        if (badGuesses > 6)
-            gc.strokeLine(150, 180, 130, 250);
-        if (badGuesses > 7)
-            gc.strokeLine(150, 180, 170, 250);
-        if (badGuesses > 8)
-            gc.strokeLine(150, 120, 130, 170);
-        if (badGuesses > 9)
-            gc.strokeLine(150, 120, 170, 170);
-        canvas.setVisible(true);
+        setGameState(session, GameState.INITIALIZED_MODIFIED);
     }
 
     @Override
     public void handleNewRequest() {
-        AppMessageDialogSingleton messageDialog   = AppMessageDialogSingleton.getSingleton();
-        PropertyManager           propertyManager = PropertyManager.getManager();
-        boolean                   makenew         = true;
-        if (gamestate.equals(GameState.INITIALIZED_MODIFIED))
-            try {
-                makenew = promptToSave();
-            } catch (IOException e) {
-                messageDialog.show(propertyManager.getPropertyValue(NEW_ERROR_TITLE), propertyManager.getPropertyValue(NEW_ERROR_MESSAGE));
-            }
-        if (makenew) {
-            appTemplate.getDataComponent().reset();                // reset the data (should be reflected in GUI)
-            appTemplate.getWorkspaceComponent().reloadWorkspace(); // load data into workspace
-            ensureActivatedWorkspace();                            // ensure workspace is activated
-            workFile = null;                                       // new workspace has never been saved to a file
-            ((Workspace) appTemplate.getWorkspaceComponent()).reinitialize();
-            enableGameButton();
-        }
-        if (gamestate.equals(GameState.ENDED)) {
+        if (session.gamestate.equals(GameState.INITIALIZED_MODIFIED))
+            promptToSave(this::newGame);
+        else
+            newGame();
+    }
+
+    private void newGame() {
+        if (session.timer != null)
+            session.timer.stop();                              // the game given up, if any, is not played to its end
+        session.playing = false;
+        appTemplate.getDataComponent().reset();                // reset the data (should be reflected in GUI)
+        appTemplate.getWorkspaceComponent().reloadWorkspace(); // load data into workspace
+        ensureActivatedWorkspace();                            // ensure workspace is activated
+        session.workFile = null;                               // new workspace has never been saved to a file
+        ((Workspace) appTemplate.getWorkspaceComponent()).reinitialize(session.index); // this clears the hangman as well
+        enableGameButton();
+        if (session.gamestate.equals(GameState.ENDED))
             appTemplate.getGUI().updateWorkspaceToolbar(false);
-            Workspace gameWorkspace = (Workspace) appTemplate.getWorkspaceComponent();
-            gameWorkspace.reinitialize();
-        }
-        // hangman should be hidden when creating new game.
-        if (canvas != null) {
-            canvas.setVisible(false);
-        }
     }
 
     @Override
-    public void handleSaveRequest() throws IOException {
-        PropertyManager propertyManager = PropertyManager.getManager();
-        if (workFile == null) {
-            FileChooser filechooser = new FileChooser();
-            Path        appDirPath  = Paths.get(propertyManager.getPropertyValue(APP_TITLE)).toAbsolutePath();
-            Path        targetPath  = appDirPath.resolve(APP_WORKDIR_PATH.getParameter());
-            filechooser.setInitialDirectory(targetPath.toFile());
-            filechooser.setTitle(propertyManager.getPropertyValue(SAVE_WORK_TITLE));
-            String description = propertyManager.getPropertyValue(WORK_FILE_EXT_DESC);
-            String extension   = propertyManager.getPropertyValue(WORK_FILE_EXT);
-            ExtensionFilter extFilter = new ExtensionFilter(String.format("%s (*.%s)", description, extension),
-                    String.format("*.%s", extension));
-            filechooser.getExtensionFilters().add(extFilter);
-            File selectedFile = filechooser.showSaveDialog(appTemplate.getGUI().getWindow());
-            if (selectedFile != null)
-                save(selectedFile.toPath());
-        } else
-            save(workFile);
+    public void handleSaveRequest() {
+        saveWork(null);
     }
 
     @Override
-    public void handleLoadRequest() throws IOException {
-        boolean load = true;
-        if (gamestate.equals(GameState.INITIALIZED_MODIFIED))
-            load = promptToSave();
-        if (load) {
-            PropertyManager propertyManager = PropertyManager.getManager();
-            FileChooser     filechooser     = new FileChooser();
-            Path            appDirPath      = Paths.get(propertyManager.getPropertyValue(APP_TITLE)).toAbsolutePath();
-            Path            targetPath      = appDirPath.resolve(APP_WORKDIR_PATH.getParameter());
-            filechooser.setInitialDirectory(targetPath.toFile());
-            filechooser.setTitle(propertyManager.getPropertyValue(LOAD_WORK_TITLE));
-            String description = propertyManager.getPropertyValue(WORK_FILE_EXT_DESC);
-            String extension   = propertyManager.getPropertyValue(WORK_FILE_EXT);
-            ExtensionFilter extFilter = new ExtensionFilter(String.format("%s (*.%s)", description, extension),
-                    String.format("*.%s", extension));
-            filechooser.getExtensionFilters().add(extFilter);
-            File selectedFile = filechooser.showOpenDialog(appTemplate.getGUI().getWindow());
-            if (selectedFile != null && selectedFile.exists())
-                load(selectedFile.toPath());
-            restoreGUI(); // restores the GUI to reflect the state in which the loaded game was last saved
-        }
+    public void handleLoadRequest() {
+        if (session.gamestate.equals(GameState.INITIALIZED_MODIFIED))
+            promptToSave(this::chooseAndLoad);
+        else
+            chooseAndLoad();
+    }
+
+    private void chooseAndLoad() {
+        PropertyManager propertyManager = PropertyManager.getManager();
+        FileChooser     filechooser     = new FileChooser();
+        Path            appDirPath      = Paths.get(propertyManager.getPropertyValue(APP_TITLE)).toAbsolutePath();
+        Path            targetPath      = appDirPath.resolve(APP_WORKDIR_PATH.getParameter());
+        filechooser.setInitialDirectory(targetPath.toFile());
+        filechooser.setTitle(propertyManager.getPropertyValue(LOAD_WORK_TITLE));
+        String description = propertyManager.getPropertyValue(WORK_FILE_EXT_DESC);
+        String extension   = propertyManager.getPropertyValue(WORK_FILE_EXT);
+        ExtensionFilter extFilter = new ExtensionFilter(String.format("%s (*.%s)", description, extension),
+                String.format("*.%s", extension));
+        filechooser.getExtensionFilters().add(extFilter);
+        File selectedFile = filechooser.showOpenDialog(appTemplate.getGUI().getWindow());
+        if (selectedFile != null && selectedFile.exists())
+            load(selectedFile.toPath());
     }
 
     @Override
     public void handleExitRequest() {
-        try {
-            boolean exit = true;
-            if (gamestate.equals(GameState.INITIALIZED_MODIFIED))
-                exit = promptToSave();
-            if (exit)
-                System.exit(0);
-        } catch (IOException ioe) {
-            AppMessageDialogSingleton dialog = AppMessageDialogSingleton.getSingleton();
-            PropertyManager           props  = PropertyManager.getManager();
-            dialog.show(props.getPropertyValue(SAVE_ERROR_TITLE), props.getPropertyValue(SAVE_ERROR_MESSAGE));
+        promptToSaveAll(0);
+    }
+
+    /**
+     * Goes through the sessions from the given one on, and, for each one whose game has changes that were not saved,
+     * shows its board and asks the user whether to save it. Once every session has been dealt with, the application
+     * exits, unless the user cancels at any point.
+     *
+     * @param from The index of the first session to go through.
+     */
+    private void promptToSaveAll(int from) {
+        List<GameSession> all = getSessions();
+        for (int i = from; i < all.size(); i++) {
+            if (all.get(i).gamestate.equals(GameState.INITIALIZED_MODIFIED)) {
+                int next = i + 1;
+                if (all.size() > 1)
+                    ((Workspace) appTemplate.getWorkspaceComponent()).showSession(i);
+                promptToSave(() -> promptToSaveAll(next));
+                return;
+            }
         }
+        exit();
+    }
+
+    /**
+     * Exits the application, once the records of the games played have been written to the history, or after
+     * {@link #HISTORY_CLOSE_TIMEOUT_MS} at most.
+     */
+    private void exit() {
+        if (history != null) {
+            try {
+                history.close(HISTORY_CLOSE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        System.exit(0);
     }
 
     private void ensureActivatedWorkspace() {
         appTemplate.getWorkspaceComponent().activateWorkspace(appTemplate.getGUI().getAppPane());
     }
 
-    private boolean promptToSave() throws IOException {
+    /**
+     * Asks the user whether to save the game before going on with something else, and goes on with it unless the user
+     * cancels. If the user chooses to save, it only goes on once the game has been saved.
+     *
+     * @param proceed What to do once the user has made up their mind.
+     */
+    private void promptToSave(Runnable proceed) {
         PropertyManager            propertyManager   = PropertyManager.getManager();
         YesNoCancelDialogSingleton yesNoCancelDialog = YesNoCancelDialogSingleton.getSingleton();
 
@@ -464,50 +432,107 @@ public class HangmanController implements FileController {
                 propertyManager.getPropertyValue(SAVE_UNSAVED_WORK_MESSAGE));
 
         if (yesNoCancelDialog.getSelection().equals(YesNoCancelDialogSingleton.YES))
-            handleSaveRequest();
+            saveWork(proceed);
+        else if (!yesNoCancelDialog.getSelection().equals(YesNoCancelDialogSingleton.CANCEL))
+            proceed.run();
+    }
 
-        return !yesNoCancelDialog.getSelection().equals(YesNoCancelDialogSingleton.CANCEL);
+    /**
+     * Saves the game to its work file, asking the user for one first if the game has never been saved.
+     *
+     * @param then What to do once the game has been saved (or if the user does not pick a file), if anything.
+     */
+    private void saveWork(Runnable then) {
+        PropertyManager propertyManager = PropertyManager.getManager();
+        if (session.workFile == null) {
+            FileChooser filechooser = new FileChooser();
+            Path        appDirPath  = Paths.get(propertyManager.getPropertyValue(APP_TITLE)).toAbsolutePath();
+            Path        targetPath  = appDirPath.resolve(APP_WORKDIR_PATH.getParameter());
+            filechooser.setInitialDirectory(targetPath.toFile());
+            filechooser.setTitle(propertyManager.getPropertyValue(SAVE_WORK_TITLE));
+            String description = propertyManager.getPropertyValue(WORK_FILE_EXT_DESC);
+            String extension   = propertyManager.getPropertyValue(WORK_FILE_EXT);
+            ExtensionFilter extFilter = new ExtensionFilter(String.format("%s (*.%s)", description, extension),
+                    String.format("*.%s", extension));
+            filechooser.getExtensionFilters().add(extFilter);
+            File selectedFile = filechooser.showSaveDialog(appTemplate.getGUI().getWindow());
+            if (selectedFile != null)
+                save(selectedFile.toPath(), then);
+            else if (then != null)
+                then.run();
+        } else
+            save(session.workFile, then);
     }
 
     /**
-     * A helper method to save work. It saves the work, marks the current work file as saved, notifies the user, and
-     * updates the appropriate controls in the user interface
+     * A helper method to save work. A snapshot of the game is taken right away and written in the background, so the
+     * game can go on meanwhile, with only the file controls disabled. Once written, the work file is marked as saved
+     * (unless more guesses were made in the meantime), and the user is notified.
      *
      * @param target The file to which the work will be saved.
-     * @throws IOException
+     * @param then   What to do once the game has been saved, if anything.
      */
-    private void save(Path target) throws IOException {
-        appTemplate.getFileComponent().saveData(appTemplate.getDataComponent(), target);
-        workFile = target;
-        setGameState(GameState.INITIALIZED_UNMODIFIED);
-        AppMessageDialogSingleton dialog = AppMessageDialogSingleton.getSingleton();
-        PropertyManager           props  = PropertyManager.getManager();
-        dialog.show(props.getPropertyValue(SAVE_COMPLETED_TITLE), props.getPropertyValue(SAVE_COMPLETED_MESSAGE));
+    private void save(Path target, Runnable then) {
+        AppGUI      gui          = appTemplate.getGUI();
+        GameSession session      = this.session;
+        GameData    savedData    = (GameData) appTemplate.getDataComponent();
+        int         savedGuesses = savedData.getGuessCount();
+        gui.runFileOperation(appTemplate.getFileComponent().prepareSave(savedData, target), () -> {
+            session.workFile = target;
+            if (savedData.getGuessCount() == savedGuesses)
+                setGameState(session, GameState.INITIALIZED_UNMODIFIED);
+            AppMessageDialogSingleton dialog = AppMessageDialogSingleton.getSingleton();
+            PropertyManager           props  = PropertyManager.getManager();
+            dialog.show(props.getPropertyValue(SAVE_COMPLETED_TITLE), props.getPropertyValue(SAVE_COMPLETED_MESSAGE));
+            if (then != null)
+                then.run();
+        }, error -> {
+            AppMessageDialogSingleton dialog = AppMessageDialogSingleton.getSingleton();
+            PropertyManager           props  = PropertyManager.getManager();
+            dialog.show(props.getPropertyValue(SAVE_ERROR_TITLE), props.getPropertyValue(SAVE_ERROR_MESSAGE));
+        }, gui.getNewButton(), gui.getSaveButton(), gui.getLoadButton(), gui.getExitButton());
     }
 
     /**
-     * A helper method to load saved game data. It loads the game data, notified the user, and then updates the GUI to
-     * reflect the correct state of the game.
+     * A helper method to load saved game data. The file is read and validated in the background, with the file
+     * controls that could interfere disabled, after which the game data is replaced in one step, the user is notified,
+     * and the GUI is updated to reflect the state in which the loaded game was last saved.
      *
      * @param source The source data file from which the game is loaded.
-     * @throws IOException
      */
-    private void load(Path source) throws IOException {
-        // load game data
-        appTemplate.getFileComponent().loadData(appTemplate.getDataComponent(), source);
+    private void load(Path source) {
+        AppGUI           gui      = appTemplate.getGUI();
+        AppFileComponent gamefile = appTemplate.getFileComponent();
+        GameSession      session  = this.session;
+        GameData         gamedata = (GameData) appTemplate.getDataComponent();
+        gui.runFileOperation(() -> gamefile.prepareLoad(source), loaded -> {
+            AppMessageDialogSingleton dialog = AppMessageDialogSingleton.getSingleton();
+            PropertyManager           props  = PropertyManager.getManager();
+
+            // swap in the loaded game data
+            session.gamedata = gamedata;
+            try {
+                loaded.applyTo(gamedata);
+            } catch (IOException e) {
+                showLoadError();
+                return;
+            }
 
-        // set the work file as the file from which the game was loaded
-        workFile = source;
+            // set the work file as the file from which the game was loaded
+            session.workFile = source;
 
-        // notify the user that load was successful
+            // notify the user that load was successful
+            dialog.show(props.getPropertyValue(LOAD_COMPLETED_TITLE), props.getPropertyValue(LOAD_COMPLETED_MESSAGE));
+
+            setGameState(session, GameState.INITIALIZED_UNMODIFIED);
+            ensureActivatedWorkspace();
+            restoreGUI(session);
+        }, error -> showLoadError(), gui.getNewButton(), gui.getSaveButton(), gui.getLoadButton());
+    }
+
+    private void showLoadError() {
         AppMessageDialogSingleton dialog = AppMessageDialogSingleton.getSingleton();
         PropertyManager           props  = PropertyManager.getManager();
-        dialog.show(props.getPropertyValue(LOAD_COMPLETED_TITLE), props.getPropertyValue(LOAD_COMPLETED_MESSAGE));
-
-        setGameState(GameState.INITIALIZED_UNMODIFIED);
-        Workspace gameworkspace = (Workspace) appTemplate.getWorkspaceComponent();
-        ensureActivatedWorkspace();
-        gameworkspace.reinitialize();
-        gamedata = (GameData) appTemplate.getDataComponent();
+        dialog.show(props.getPropertyValue(LOAD_ERROR_TITLE), props.getPropertyValue(LOAD_ERROR_MESSAGE));
     }
 }
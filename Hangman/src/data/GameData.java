@@ -5,15 +5,10 @@ import components.AppDataComponent;
 import controller.GameError;
 import ui.AppMessageDialogSingleton;
 
-import java.io.IOException;
-import java.net.URISyntaxException;
-import java.net.URL;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.HashSet;
-import java.util.Random;
 import java.util.Set;
-import java.util.stream.Stream;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * @author Ritwik Banerjee
@@ -21,75 +16,74 @@ import java.util.stream.Stream;
  */
 public class GameData implements AppDataComponent {
 
-    public static final  int TOTAL_NUMBER_OF_GUESSES_ALLOWED = 10;
-    private static final int TOTAL_NUMBER_OF_STORED_WORDS    = 330622;
-
-    private String         targetWord;
-    private Set<Character> goodGuesses;
-    private Set<Character> badGuesses;
-    private int            remainingGuesses;
-    private boolean        usedHint;
-    public  AppTemplate    appTemplate;
-
-    public GameData(AppTemplate appTemplate) {
-        this(appTemplate, false);
-    }
-
-    public GameData(AppTemplate appTemplate, boolean initiateGame) {
-        if (initiateGame) {
-            this.appTemplate = appTemplate;
-            this.targetWord = setTargetWord();
-            this.goodGuesses = new HashSet<>();
-            this.badGuesses = new HashSet<>();
-            this.remainingGuesses = TOTAL_NUMBER_OF_GUESSES_ALLOWED;
-        } else {
-            this.appTemplate = appTemplate;
-        }
+    public static final int TOTAL_NUMBER_OF_GUESSES_ALLOWED = 10;
+
+    private volatile GameSnapshot snapshot;    // the game as it now stands, replaced as a whole on every change
+    private final    WordCorpus   corpus;      // the words from which each target word is chosen
+    public           AppTemplate  appTemplate;
+
+    /**
+     * @param appTemplate The application this data is part of, or {@code null} when running without a user interface
+     *                    (see {@link apptemplate.HeadlessRuntime}).
+     * @param corpus      The words from which each target word is chosen.
+     */
+    public GameData(AppTemplate appTemplate, WordCorpus corpus) {
+        this(appTemplate, corpus, false);
+    }
+
+    public GameData(AppTemplate appTemplate, WordCorpus corpus, boolean initiateGame) {
+        this.corpus = corpus;
+        this.appTemplate = appTemplate;
+        this.snapshot = GameSnapshot.start(null, false);
+        if (initiateGame)
+            init();
     }
 
     public void init() {
-        this.targetWord = setTargetWord();
-        this.goodGuesses = new HashSet<>();
-        this.badGuesses = new HashSet<>();
-        this.remainingGuesses = TOTAL_NUMBER_OF_GUESSES_ALLOWED;
+        snapshot = GameSnapshot.start(setTargetWord(), snapshot.isUsedHint());
     }
 
     @Override
     public void reset() {
-        this.targetWord = null;
-        this.goodGuesses = new HashSet<>();
-        this.badGuesses = new HashSet<>();
-        this.remainingGuesses = TOTAL_NUMBER_OF_GUESSES_ALLOWED;
-        appTemplate.getWorkspaceComponent().reloadWorkspace();
+        snapshot = GameSnapshot.start(null, snapshot.isUsedHint());
+        if (appTemplate != null && appTemplate.getWorkspaceComponent() != null) // there is no workspace when headless
+            appTemplate.getWorkspaceComponent().reloadWorkspace();
+    }
+
+    /**
+     * Replaces the current game with a saved one, all at once. Unlike {@link #reset()}, this does not reload the
+     * workspace, which is left to the caller.
+     *
+     * @param saved The saved game, already validated.
+     */
+    public void restore(SavedGame saved) {
+        snapshot = GameSnapshot.of(saved);
+    }
+
+    /**
+     * Gets the game as it now stands. The game is only ever changed on one thread, e.g., the JavaFX application thread,
+     * but its snapshot may be read on any thread, e.g., to save the game, to log it, or to show it to spectators,
+     * without locking, and without seeing a guess half made.
+     *
+     * @return the latest snapshot of the game.
+     */
+    public GameSnapshot getSnapshot() {
+        return snapshot;
     }
 
     public String getTargetWord() {
-        return targetWord;
+        return snapshot.getTargetWord();
+    }
+
+    public WordCorpus getCorpus() {
+        return corpus;
     }
 
     private String setTargetWord() {
-        URL wordsResource = getClass().getClassLoader().getResource("words/words.txt");
-        assert wordsResource != null;
-        int maxWordAttempts = 100;
-        while (maxWordAttempts > 0) {
-            int toSkip = new Random().nextInt(TOTAL_NUMBER_OF_STORED_WORDS);
-            boolean validWord = true;
-            try (Stream<String> lines = Files.lines(Paths.get(wordsResource.toURI()))) {
-                String word = lines.skip(toSkip).findFirst().get();
-                for (int i = 0; i < word.length(); i++) {
-                    if (!Character.isLetter(word.charAt(i))) {
-                        maxWordAttempts--;
-                        validWord = false;
-                    }
-                }
-                if (validWord) {
-                    return word.toLowerCase();
-                }
-            } catch (IOException | URISyntaxException e) {
-                //e.printStackTrace();
-                System.exit(1);
-            }
-        }
+        if (corpus.size() > 0)
+            return corpus.randomWord(ThreadLocalRandom.current());
+        if (appTemplate == null)
+            throw new GameError("Unable to load initial target word.");
         AppMessageDialogSingleton messageDialog = AppMessageDialogSingleton.getSingleton();
         messageDialog.show("Error", "Correct targetWord not found");
         messageDialog.close();
@@ -97,48 +91,93 @@ public class GameData implements AppDataComponent {
     }
 
     public GameData setTargetWord(String targetWord) {
-        this.targetWord = targetWord;
+        snapshot = snapshot.withTargetWord(targetWord);
         return this;
     }
 
+    /** @return the good guesses so far, as a set of their own, which later guesses leave as it is. */
     public Set<Character> getGoodGuesses() {
-        return goodGuesses;
+        return guesses(snapshot, true);
     }
 
     public GameData setGoodGuesses(Set<Character> goodGuesses) {
-        this.goodGuesses = goodGuesses;
+        snapshot = snapshot.withGuesses(letters(goodGuesses), snapshot.getBadGuesses());
         return this;
     }
 
+    /** @return the bad guesses so far, as a set of their own, which later guesses leave as it is. */
     public Set<Character> getBadGuesses() {
-        return badGuesses;
+        return guesses(snapshot, false);
     }
 
     public GameData setBadGuesses(Set<Character> badGuesses) {
-        this.badGuesses = badGuesses;
+        snapshot = snapshot.withGuesses(snapshot.getGoodGuesses(), letters(badGuesses));
         return this;
     }
 
+    private static Set<Character> guesses(GameSnapshot snapshot, boolean good) {
+        Set<Character> guesses = new HashSet<>();
+        for (int i = 0; i < snapshot.getGuessCount(); i++) {
+            if (snapshot.isGoodGuess(snapshot.getGuess(i)) == good)
+                guesses.add(snapshot.getGuess(i));
+        }
+        return Collections.unmodifiableSet(guesses);
+    }
+
+    private static int letters(Set<Character> guesses) {
+        int letters = 0;
+        for (char c : guesses)
+            letters |= SavedGame.bit(c);
+        return letters;
+    }
+
     public int getRemainingGuesses() {
-        return remainingGuesses;
+        return snapshot.getRemainingGuesses();
+    }
+
+    /**
+     * Makes a guess, which is scored against the target word (see {@link GameSnapshot#withGuess(char)}). The game on
+     * screen and the one played without a user interface both guess through this, so a guess always counts alike.
+     *
+     * @param c A letter.
+     * @return whether the guess changed the game, i.e., whether the letter had not been guessed yet.
+     */
+    public boolean guess(char c) {
+        GameSnapshot last = snapshot;
+        snapshot = last.withGuess(c);
+        return snapshot != last;
     }
 
     public void addGoodGuess(char c) {
-        goodGuesses.add(c);
+        snapshot = snapshot.withGoodGuess(c);
     }
 
     public void addBadGuess(char c) {
-        if (!badGuesses.contains(c)) {
-            badGuesses.add(c);
-            remainingGuesses--;
-        }
+        snapshot = snapshot.withBadGuess(c);
+    }
+
+    /**
+     * @return the distinct letters guessed so far, in the order in which they were guessed. For a game that was loaded
+     * from a file, the guesses restored from the file come first, in alphabetical order.
+     */
+    public String getGuessOrder() {
+        return snapshot.getGuessOrder();
+    }
+
+    /** @return the number of distinct letters guessed so far. */
+    public int getGuessCount() {
+        return snapshot.getGuessCount();
+    }
+
+    public long getStartTime() {
+        return snapshot.getStartTime();
     }
 
     public boolean isUsedHint() {
-        return usedHint;
+        return snapshot.isUsedHint();
     }
 
     public void setUsedHint(boolean usedHint) {
-        this.usedHint = usedHint;
+        snapshot = snapshot.withUsedHint(usedHint);
     }
 }
@@ -0,0 +1,204 @@
+package data;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static data.GameDataFile.*;
+
+/**
+ * The JSON encoding of saved games. There is a single codec, which owns the one configured {@link JsonFactory} of the
+ * application. The factory is thread-safe, and recycles the buffers of its parsers and generators on a per-thread
+ * basis, so the codec may be shared by any number of threads.
+ */
+public final class GameDataCodec {
+
+    private static final GameDataCodec codec = new GameDataCodec();
+
+    private final JsonFactory jsonFactory;
+
+    private GameDataCodec() {
+        jsonFactory = new JsonFactory();
+        jsonFactory.enable(JsonFactory.Feature.USE_THREAD_LOCAL_FOR_BUFFER_RECYCLING);
+        jsonFactory.enable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    public static GameDataCodec getCodec() {
+        return codec;
+    }
+
+    /**
+     * Writes a game to a file. The generator buffers the whole (small) document, so it reaches the file channel in a
+     * single write when the generator is closed.
+     *
+     * @param game The game to write.
+     * @param to   The file to which the game is written, which is replaced if it already exists.
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(SavedGame game, Path to) throws IOException {
+        try (FileChannel channel = FileChannel.open(to, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING);
+             JsonGenerator generator = jsonFactory.createGenerator(Channels.newOutputStream(channel), JsonEncoding.UTF8)) {
+            writeGame(generator, game);
+        }
+    }
+
+    /**
+     * Reads and validates a game from a file.
+     *
+     * @param from The file from which the game is read.
+     * @return the saved game.
+     * @throws IOException If the file cannot be read, or does not hold a valid game.
+     */
+    public SavedGame read(Path from) throws IOException {
+        return decode(Files.readAllBytes(from));
+    }
+
+    public byte[] encode(SavedGame game) throws IOException {
+        ByteArrayBuilder bytes = new ByteArrayBuilder();
+        try (JsonGenerator generator = jsonFactory.createGenerator(bytes, JsonEncoding.UTF8)) {
+            writeGame(generator, game);
+        }
+        return bytes.toByteArray();
+    }
+
+    public SavedGame decode(byte[] content) throws IOException {
+        try (JsonParser jsonParser = jsonFactory.createParser(content)) {
+            if (jsonParser.nextToken() != JsonToken.START_OBJECT)
+                throw new JsonParseException(jsonParser, "Unable to load JSON data");
+            return readGame(jsonParser);
+        }
+    }
+
+    /**
+     * Encodes many games at once, as a single JSON array.
+     *
+     * @param games The games to encode.
+     * @return the encoded games.
+     * @throws IOException If a game cannot be encoded.
+     */
+    public byte[] encodeAll(Collection<SavedGame> games) throws IOException {
+        ByteArrayBuilder bytes = new ByteArrayBuilder();
+        try (JsonGenerator generator = jsonFactory.createGenerator(bytes, JsonEncoding.UTF8)) {
+            generator.writeStartArray(games.size());
+            for (SavedGame game : games)
+                writeGame(generator, game);
+            generator.writeEndArray();
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes many games at once, from a JSON array as written by {@link #encodeAll(Collection)}.
+     *
+     * @param content The encoded games.
+     * @return the decoded games, in order.
+     * @throws IOException If the content does not hold an array of valid games.
+     */
+    public List<SavedGame> decodeAll(byte[] content) throws IOException {
+        List<SavedGame> games = new ArrayList<>();
+        try (JsonParser jsonParser = jsonFactory.createParser(content)) {
+            if (jsonParser.nextToken() != JsonToken.START_ARRAY)
+                throw new JsonParseException(jsonParser, "Unable to load JSON data");
+            JsonToken token;
+            while ((token = jsonParser.nextToken()) == JsonToken.START_OBJECT)
+                games.add(readGame(jsonParser));
+            if (token != JsonToken.END_ARRAY)
+                throw new JsonParseException(jsonParser, "Unable to load JSON data");
+        }
+        return games;
+    }
+
+    private static void writeGame(JsonGenerator generator, SavedGame game) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField(TARGET_WORD, game.getTargetWord());
+        generator.writeFieldName(GOOD_GUESSES);
+        writeGuesses(generator, game.getGoodGuesses());
+        generator.writeFieldName(BAD_GUESSES);
+        writeGuesses(generator, game.getBadGuesses());
+        generator.writeBooleanField(USED_HINT, game.isUsedHint());
+        generator.writeEndObject();
+    }
+
+    private static void writeGuesses(JsonGenerator generator, int guesses) throws IOException {
+        char[] letter = new char[1];
+        generator.writeStartArray(Integer.bitCount(guesses));
+        for (char c = 'a'; c <= 'z'; c++) {
+            if ((guesses & SavedGame.bit(c)) != 0) {
+                letter[0] = c;
+                generator.writeString(letter, 0, 1);
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    /** Reads the fields of a game, the parser being positioned on the start of the object, and validates them. */
+    private static SavedGame readGame(JsonParser jsonParser) throws IOException {
+        String  targetWord  = null;
+        int     goodGuesses = 0;
+        int     badGuesses  = 0;
+        Boolean usedHint    = false;
+
+        while (jsonParser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldname = jsonParser.getCurrentName();
+            switch (fieldname) {
+                case TARGET_WORD:
+                    targetWord = jsonParser.nextTextValue();
+                    break;
+                case GOOD_GUESSES:
+                    goodGuesses = readGuesses(jsonParser);
+                    break;
+                case BAD_GUESSES:
+                    badGuesses = readGuesses(jsonParser);
+                    break;
+                case USED_HINT:
+                    usedHint = jsonParser.nextBooleanValue();
+                    break;
+                default:
+                    throw new JsonParseException(jsonParser, "Unable to load JSON data");
+            }
+        }
+
+        if (targetWord == null || targetWord.isEmpty() || usedHint == null)
+            throw new JsonParseException(jsonParser, "Incomplete saved game");
+        int targetLetters = 0;
+        for (int i = 0; i < targetWord.length(); i++) {
+            int bit = SavedGame.bit(targetWord.charAt(i)); // only a word of the letters 'a' to 'z' can ever be found
+            if (bit == 0)
+                throw new JsonParseException(jsonParser, "Invalid target word in saved game: " + targetWord);
+            targetLetters |= bit;
+        }
+        if ((goodGuesses & ~targetLetters) != 0 || (badGuesses & targetLetters) != 0 ||
+                Integer.bitCount(badGuesses) > GameData.TOTAL_NUMBER_OF_GUESSES_ALLOWED)
+            throw new JsonParseException(jsonParser, "Inconsistent guesses in saved game");
+        return new SavedGame(targetWord, goodGuesses, badGuesses, usedHint);
+    }
+
+    private static int readGuesses(JsonParser jsonParser) throws IOException {
+        if (jsonParser.nextToken() != JsonToken.START_ARRAY)
+            throw new JsonParseException(jsonParser, "Unable to load JSON data");
+        int guesses = 0;
+        while (jsonParser.nextToken() != JsonToken.END_ARRAY) {
+            String text = jsonParser.getValueAsString();
+            int    bit  = text != null && text.length() == 1 ? SavedGame.bit(text.charAt(0)) : 0;
+            if (bit == 0)
+                throw new JsonParseException(jsonParser, "Invalid guess in saved game");
+            guesses |= bit;
+        }
+        return guesses;
+    }
+}
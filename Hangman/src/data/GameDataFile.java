@@ -1,14 +1,10 @@
 package data;
 
-import com.fasterxml.jackson.core.*;
 import components.AppDataComponent;
 import components.AppFileComponent;
 
 import java.io.IOException;
-import java.io.OutputStream;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Set;
 
 /**
  * @author Ritwik Banerjee
@@ -23,80 +19,45 @@ public class GameDataFile implements AppFileComponent {
 
     @Override
     public void saveData(AppDataComponent data, Path to) {
-        GameData       gamedata    = (GameData) data;
-        Set<Character> goodguesses = gamedata.getGoodGuesses();
-        Set<Character> badguesses  = gamedata.getBadGuesses();
-        Boolean        usedHint    = gamedata.isUsedHint();
-
-        JsonFactory jsonFactory = new JsonFactory();
-
-        try (OutputStream out = Files.newOutputStream(to)) {
-
-            JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8);
-
-            generator.writeStartObject();
-
-            generator.writeStringField(TARGET_WORD, gamedata.getTargetWord());
-
-            generator.writeFieldName(GOOD_GUESSES);
-            generator.writeStartArray(goodguesses.size());
-            for (Character c : goodguesses)
-                generator.writeString(c.toString());
-            generator.writeEndArray();
-
-            generator.writeFieldName(BAD_GUESSES);
-            generator.writeStartArray(badguesses.size());
-            for (Character c : badguesses)
-                generator.writeString(c.toString());
-            generator.writeEndArray();
-            generator.writeFieldName(USED_HINT);
-            generator.writeBoolean(usedHint);
-
-            generator.writeEndObject();
-
-            generator.close();
-
+        try {
+            GameDataCodec.getCodec().write(SavedGame.of((GameData) data), to);
         } catch (IOException e) {
             e.printStackTrace();
             System.exit(1);
         }
     }
 
+    /**
+     * Takes a snapshot of the game right away, so that it can be written in the background while the game goes on.
+     * Unlike {@link #saveData(AppDataComponent, Path)}, a failure to write is reported to the caller.
+     */
+    @Override
+    public FileOperation prepareSave(AppDataComponent data, Path to) {
+        SavedGame game = SavedGame.of((GameData) data);
+        return () -> GameDataCodec.getCodec().write(game, to);
+    }
+
+    /**
+     * Loads the saved game into the given data component. The file is read and validated in full before the data
+     * component is touched, so an invalid file leaves the current game as it was.
+     */
     @Override
     public void loadData(AppDataComponent data, Path from) throws IOException {
-        GameData gamedata = (GameData) data;
-        gamedata.reset();
+        ((GameData) data).restore(read(from));
+    }
 
-        JsonFactory jsonFactory = new JsonFactory();
-        JsonParser  jsonParser  = jsonFactory.createParser(Files.newInputStream(from));
+    /**
+     * Reads and validates the saved game in full, without touching the data component of the application, so that
+     * only replacing the game, all at once, is left to the JavaFX application thread.
+     */
+    @Override
+    public LoadedData prepareLoad(Path from) throws IOException {
+        SavedGame game = read(from);
+        return data -> ((GameData) data).restore(game);
+    }
 
-        while (!jsonParser.isClosed()) {
-            JsonToken token = jsonParser.nextToken();
-            if (JsonToken.FIELD_NAME.equals(token)) {
-                String fieldname = jsonParser.getCurrentName();
-                switch (fieldname) {
-                    case TARGET_WORD:
-                        jsonParser.nextToken();
-                        gamedata.setTargetWord(jsonParser.getValueAsString());
-                        break;
-                    case GOOD_GUESSES:
-                        jsonParser.nextToken();
-                        while (jsonParser.nextToken() != JsonToken.END_ARRAY)
-                            gamedata.addGoodGuess(jsonParser.getText().charAt(0));
-                        break;
-                    case BAD_GUESSES:
-                        jsonParser.nextToken();
-                        while (jsonParser.nextToken() != JsonToken.END_ARRAY)
-                            gamedata.addBadGuess(jsonParser.getText().charAt(0));
-                        break;
-                    case USED_HINT:
-                        gamedata.setUsedHint(jsonParser.nextBooleanValue());
-                        break;
-                    default:
-                        throw new JsonParseException(jsonParser, "Unable to load JSON data");
-                }
-            }
-        }
+    private static SavedGame read(Path from) throws IOException {
+        return GameDataCodec.getCodec().read(from);
     }
 
     /** This method will be used if we need to export data into other formats. */
@@ -0,0 +1,546 @@
+package data;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An append-only log of every completed game.
+ * <p>
+ * Records are appended to a row-oriented segment, which is sealed once it holds {@link #SEGMENT_CAPACITY} records.
+ * Sealed segments are compacted in the background into a columnar segment, where the word lengths, misses and flags
+ * of all the records are stored contiguously, so that the aggregate queries only ever read the few bytes per record
+ * they actually need. Whenever more than {@link #MAX_COLUMN_SEGMENTS} columnar segments accumulate, the smallest of
+ * them are merged together.
+ * <p>
+ * All the writing happens on a single background thread, including opening the history, so neither opening the history
+ * nor appending a record ever blocks the caller; any failure there is logged. The queries can be run from any thread,
+ * and only ever read the records of the active segment that the writer has finished writing.
+ */
+public class GameHistory {
+
+    public static final String HISTORY_DIRECTORY = "history";
+
+    static final int SEGMENT_CAPACITY    = 4096; // the number of records in a row segment before it is sealed
+    static final int MAX_COLUMN_SEGMENTS = 8;    // the number of columnar segments allowed before some are merged
+    static final int MERGE_FAN_IN        = 4;    // the number of columnar segments merged together at a time
+
+    private static final String ROW_SEGMENT_PREFIX    = "rows-";
+    private static final String COLUMN_SEGMENT_PREFIX = "cols-";
+    private static final String SEGMENT_EXTENSION     = ".seg";
+    private static final String TEMPORARY_EXTENSION   = ".tmp";
+    private static final int    ROW_SEGMENT_MAGIC     = 0x48475231; // "HGR1"
+    private static final int    COLUMN_SEGMENT_MAGIC  = 0x48474331; // "HGC1"
+
+    private static final Logger LOGGER = Logger.getLogger(GameHistory.class.getName());
+
+    private final Path                     directory;
+    private final ExecutorService          writer;
+    private final ReadWriteLock            segmentsLock = new ReentrantReadWriteLock();
+    private final Map<Path, ColumnSegment> columnCache  = new ConcurrentHashMap<>();
+
+    // the following are only ever touched by the writer thread once the history has been opened
+    private long             nextIndex;
+    private Path             activePath;
+    private DataOutputStream activeSegment;
+    private int              activeCount;
+
+    private volatile ActiveRows activeRows; // the active segment and how many of its records are written, if any
+
+    /**
+     * Opens (or creates) the history stored in the given directory. The directory is created, and any segment left
+     * sealed but not yet compacted by a previous run is compacted, in the background, so this returns right away.
+     *
+     * @param directory The directory in which the segments are stored.
+     */
+    public GameHistory(Path directory) {
+        this.directory = directory;
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-history-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.execute(this::open);
+    }
+
+    private void open() {
+        try {
+            Files.createDirectories(directory);
+            List<Path> pending;
+            segmentsLock.writeLock().lock(); // the queries may already be running
+            try {
+                pending = recover();
+            } finally {
+                segmentsLock.writeLock().unlock();
+            }
+            for (Path rows : pending)
+                compact(rows);
+            mergeIfNeeded();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Unable to open the game history in " + directory, e);
+        }
+    }
+
+    /**
+     * Appends the record of a completed game to the history. The record is written in the background.
+     *
+     * @param record The record to append.
+     */
+    public void append(GameRecord record) {
+        writer.execute(() -> {
+            try {
+                if (activeSegment == null)
+                    openActiveSegment();
+                writeRow(activeSegment, record);
+                activeSegment.flush();
+                activeRows = new ActiveRows(activePath, ++activeCount);
+                if (activeCount >= SEGMENT_CAPACITY) {
+                    Path sealed = activePath;
+                    closeActiveSegment();
+                    compact(sealed);
+                    mergeIfNeeded();
+                }
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Unable to append to the game history in " + directory, e);
+                closeActiveSegment();
+            }
+        });
+    }
+
+    /**
+     * Seals the active segment and stops the background writer, once every pending record has been written. This
+     * returns right away; see {@link #close(long, TimeUnit)} to wait for the writer. Closing the history again does
+     * nothing.
+     */
+    public synchronized void close() {
+        if (writer.isShutdown())
+            return;
+        writer.execute(this::closeActiveSegment);
+        writer.shutdown();
+    }
+
+    /**
+     * Closes the history, and waits for the pending records to be written and the active segment to be sealed, e.g.,
+     * before the application exits, which would otherwise stop the writer, a daemon thread, with records still queued.
+     *
+     * @param timeout How long to wait at most.
+     * @param unit    The unit of the timeout.
+     * @return whether the writer finished in time.
+     * @throws InterruptedException If the current thread is interrupted while waiting.
+     */
+    public boolean close(long timeout, TimeUnit unit) throws InterruptedException {
+        close();
+        return writer.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * @return the fraction of games won, for each length of the target word that has been played at least once.
+     * @throws IOException If the segments cannot be read.
+     */
+    public Map<Integer, Double> winRateByWordLength() throws IOException {
+        Aggregate            aggregate = aggregate();
+        Map<Integer, Double> winRates  = new TreeMap<>();
+        for (int length = 0; length < aggregate.games.length; length++) {
+            if (aggregate.games[length] > 0)
+                winRates.put(length, (double) aggregate.wins[length] / aggregate.games[length]);
+        }
+        return winRates;
+    }
+
+    /**
+     * @return the average number of bad guesses made per game, or 0 if no game has been recorded.
+     * @throws IOException If the segments cannot be read.
+     */
+    public double averageMisses() throws IOException {
+        Aggregate aggregate = aggregate();
+        return aggregate.total == 0 ? 0 : (double) aggregate.misses / aggregate.total;
+    }
+
+    /**
+     * @return the fraction of games in which the hint was used, or 0 if no game has been recorded.
+     * @throws IOException If the segments cannot be read.
+     */
+    public double hintUsageRate() throws IOException {
+        Aggregate aggregate = aggregate();
+        return aggregate.total == 0 ? 0 : (double) aggregate.hints / aggregate.total;
+    }
+
+    private Aggregate aggregate() throws IOException {
+        Aggregate aggregate = new Aggregate();
+        segmentsLock.readLock().lock();
+        try {
+            for (Path columns : list(COLUMN_SEGMENT_PREFIX)) {
+                ColumnSegment segment = columnCache.get(columns);
+                if (segment == null) {
+                    segment = readColumns(columns, false);
+                    columnCache.put(columns, segment);
+                }
+                for (int i = 0; i < segment.count; i++)
+                    aggregate.add(segment.wordLengths[i] & 0xFF, segment.misses[i], segment.flags[i]);
+            }
+            List<Path> rowSegments = list(ROW_SEGMENT_PREFIX);
+            ActiveRows active      = activeRows; // read after the listing, so any other row segment listed is sealed
+            for (Path rows : rowSegments) {
+                int limit = active != null && active.path.equals(rows) ? active.count : Integer.MAX_VALUE;
+                for (GameRecord record : readRows(rows, limit))
+                    aggregate.add(Math.min(record.getTargetWord().length(), 0xFF), record.getMisses(), record.getFlags());
+            }
+        } finally {
+            segmentsLock.readLock().unlock();
+        }
+        return aggregate;
+    }
+
+    /**
+     * Cleans up after a previous run that may have stopped in the middle of a compaction or a merge, and works out the
+     * index of the next segment.
+     *
+     * @return the row segments that still need to be compacted.
+     */
+    private List<Path> recover() throws IOException {
+        for (Path temporary : list("", TEMPORARY_EXTENSION))
+            Files.delete(temporary);
+
+        List<Path> columns = list(COLUMN_SEGMENT_PREFIX);
+        List<Path> rows    = list(ROW_SEGMENT_PREFIX);
+        for (Path segment : columns)
+            nextIndex = Math.max(nextIndex, indexOf(segment) + 1);
+        for (Path segment : rows)
+            nextIndex = Math.max(nextIndex, indexOf(segment) + 1);
+
+        // a segment is stale if some columnar segment other than itself was built out of it
+        Map<Path, Set<Long>> sources = new TreeMap<>();
+        for (Path segment : columns)
+            sources.put(segment, readSources(segment));
+        List<Path> live = new ArrayList<>();
+        for (Path segment : columns) {
+            if (!isStale(segment, sources))
+                live.add(segment);
+        }
+        for (Path segment : columns) {
+            if (!live.contains(segment))
+                Files.delete(segment);
+        }
+        List<Path> pending = new ArrayList<>();
+        for (Path segment : rows) {
+            boolean compacted = false;
+            for (Path columnSegment : live)
+                compacted |= sources.get(columnSegment).contains(indexOf(segment));
+            if (compacted)
+                Files.delete(segment);
+            else
+                pending.add(segment);
+        }
+        return pending;
+    }
+
+    private static boolean isStale(Path segment, Map<Path, Set<Long>> sources) {
+        for (Map.Entry<Path, Set<Long>> entry : sources.entrySet()) {
+            if (!entry.getKey().equals(segment) && entry.getValue().contains(indexOf(segment)))
+                return true;
+        }
+        return false;
+    }
+
+    private void openActiveSegment() throws IOException {
+        activePath = segmentPath(ROW_SEGMENT_PREFIX, nextIndex++);
+        activeSegment = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(activePath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)));
+        activeSegment.writeInt(ROW_SEGMENT_MAGIC);
+        activeCount = 0;
+        activeRows = new ActiveRows(activePath, 0);
+    }
+
+    private void closeActiveSegment() {
+        if (activeSegment != null) {
+            try {
+                activeSegment.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Unable to seal " + activePath, e);
+            }
+        }
+        activeRows = null;
+        activeSegment = null;
+        activePath = null;
+        activeCount = 0;
+    }
+
+    /** Rewrites a sealed row segment as a columnar segment, and then removes the row segment. */
+    private void compact(Path rows) {
+        try {
+            List<GameRecord> records = readRows(rows, Integer.MAX_VALUE);
+            long             index   = indexOf(rows);
+            Path             target  = segmentPath(COLUMN_SEGMENT_PREFIX, index);
+            Path             written = records.isEmpty() ? null : writeColumns(target, Collections.singleton(index), records);
+            segmentsLock.writeLock().lock();
+            try {
+                if (written != null)
+                    Files.move(written, target, StandardCopyOption.ATOMIC_MOVE);
+                Files.delete(rows);
+            } finally {
+                segmentsLock.writeLock().unlock();
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Unable to compact " + rows, e);
+        }
+    }
+
+    /** Merges the smallest columnar segments together, for as long as there are too many of them. */
+    private void mergeIfNeeded() {
+        try {
+            List<Path> columns = list(COLUMN_SEGMENT_PREFIX);
+            while (columns.size() > MAX_COLUMN_SEGMENTS) {
+                List<ColumnSegment> segments = new ArrayList<>();
+                for (Path segment : columns)
+                    segments.add(readColumns(segment, false));
+                segments.sort(Comparator.comparingInt(segment -> segment.count));
+
+                List<Path>       merged  = new ArrayList<>();
+                Set<Long>        sources = new HashSet<>();
+                List<GameRecord> records = new ArrayList<>();
+                for (ColumnSegment segment : segments.subList(0, MERGE_FAN_IN)) {
+                    ColumnSegment full = readColumns(segment.path, true);
+                    merged.add(full.path);
+                    sources.add(indexOf(full.path));
+                    for (long source : full.sources)
+                        sources.add(source);
+                    full.addRecordsTo(records);
+                }
+
+                Path target  = segmentPath(COLUMN_SEGMENT_PREFIX, nextIndex++);
+                Path written = writeColumns(target, sources, records);
+                segmentsLock.writeLock().lock();
+                try {
+                    Files.move(written, target, StandardCopyOption.ATOMIC_MOVE);
+                    for (Path segment : merged) {
+                        Files.delete(segment);
+                        columnCache.remove(segment);
+                    }
+                } finally {
+                    segmentsLock.writeLock().unlock();
+                }
+                columns = list(COLUMN_SEGMENT_PREFIX);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Unable to merge the segments of the game history in " + directory, e);
+        }
+    }
+
+    private static void writeRow(DataOutputStream out, GameRecord record) throws IOException {
+        out.writeUTF(record.getTargetWord());
+        out.writeUTF(record.getGuesses());
+        out.writeByte(record.getFlags());
+        out.writeLong(record.getStartTime());
+        out.writeInt(record.getDuration());
+    }
+
+    /**
+     * Reads the complete records of a row segment, up to a limit. A record cut short by a crash marks the end of the
+     * segment.
+     */
+    private static List<GameRecord> readRows(Path rows, int limit) throws IOException {
+        List<GameRecord> records = new ArrayList<>();
+        if (limit == 0)
+            return records;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(rows)))) {
+            if (in.readInt() != ROW_SEGMENT_MAGIC)
+                throw new IOException("Not a game history segment: " + rows);
+            while (records.size() < limit) {
+                String word     = in.readUTF();
+                String guesses  = in.readUTF();
+                int    flags    = in.readByte();
+                long   start    = in.readLong();
+                int    duration = in.readInt();
+                records.add(new GameRecord(word, guesses, (flags & GameRecord.FLAG_WON) != 0,
+                                           (flags & GameRecord.FLAG_USED_HINT) != 0, start, duration));
+            }
+        } catch (EOFException e) {
+            // the end of the segment
+        }
+        return records;
+    }
+
+    /**
+     * Writes the given records as a columnar segment into a temporary file next to the target.
+     *
+     * @return the temporary file, which is to be moved onto the target once it is safe to do so.
+     */
+    private static Path writeColumns(Path target, Set<Long> sources, List<GameRecord> records) throws IOException {
+        Path temporary = target.resolveSibling(target.getFileName() + TEMPORARY_EXTENSION);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(COLUMN_SEGMENT_MAGIC);
+            out.writeInt(sources.size());
+            for (long source : sources)
+                out.writeLong(source);
+            out.writeInt(records.size());
+            for (GameRecord record : records)
+                out.writeByte(Math.min(record.getTargetWord().length(), 0xFF));
+            for (GameRecord record : records)
+                out.writeByte(record.getMisses());
+            for (GameRecord record : records)
+                out.writeByte(record.getFlags());
+            for (GameRecord record : records)
+                out.writeLong(record.getStartTime());
+            for (GameRecord record : records)
+                out.writeInt(record.getDuration());
+            for (GameRecord record : records)
+                out.writeUTF(record.getTargetWord());
+            for (GameRecord record : records)
+                out.writeUTF(record.getGuesses());
+        }
+        return temporary;
+    }
+
+    private static Set<Long> readSources(Path columns) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(columns)))) {
+            return readHeader(in, columns);
+        }
+    }
+
+    private static Set<Long> readHeader(DataInputStream in, Path columns) throws IOException {
+        if (in.readInt() != COLUMN_SEGMENT_MAGIC)
+            throw new IOException("Not a game history segment: " + columns);
+        int       sourceCount = in.readInt();
+        Set<Long> sources     = new HashSet<>(sourceCount * 2);
+        for (int i = 0; i < sourceCount; i++)
+            sources.add(in.readLong());
+        return sources;
+    }
+
+    /**
+     * Reads a columnar segment. Unless all the columns are asked for, only the fixed-width columns needed by the
+     * queries are read.
+     */
+    private static ColumnSegment readColumns(Path columns, boolean allColumns) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(columns)))) {
+            ColumnSegment segment = new ColumnSegment(columns, readHeader(in, columns), in.readInt());
+            in.readFully(segment.wordLengths);
+            in.readFully(segment.misses);
+            in.readFully(segment.flags);
+            if (allColumns) {
+                segment.startTimes = new long[segment.count];
+                segment.durations = new int[segment.count];
+                segment.words = new String[segment.count];
+                segment.guesses = new String[segment.count];
+                for (int i = 0; i < segment.count; i++)
+                    segment.startTimes[i] = in.readLong();
+                for (int i = 0; i < segment.count; i++)
+                    segment.durations[i] = in.readInt();
+                for (int i = 0; i < segment.count; i++)
+                    segment.words[i] = in.readUTF();
+                for (int i = 0; i < segment.count; i++)
+                    segment.guesses[i] = in.readUTF();
+            }
+            return segment;
+        }
+    }
+
+    private List<Path> list(String prefix) throws IOException {
+        return list(prefix, SEGMENT_EXTENSION);
+    }
+
+    private List<Path> list(String prefix, String extension) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory))
+            return segments; // the history is still being opened
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, prefix + "*" + extension)) {
+            for (Path segment : stream)
+                segments.add(segment);
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+
+    private Path segmentPath(String prefix, long index) {
+        return directory.resolve(String.format("%s%016d%s", prefix, index, SEGMENT_EXTENSION));
+    }
+
+    private static long indexOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(name.indexOf('-') + 1, name.length() - SEGMENT_EXTENSION.length()));
+    }
+
+    /** The active row segment, and the number of records in it that have been written out, as seen by the queries. */
+    private static final class ActiveRows {
+        final Path path;
+        final int  count;
+
+        ActiveRows(Path path, int count) {
+            this.path = path;
+            this.count = count;
+        }
+    }
+
+    private static final class ColumnSegment {
+        final Path   path;
+        final long[] sources;
+        final int    count;
+        final byte[] wordLengths;
+        final byte[] misses;
+        final byte[] flags;
+        long[]       startTimes;
+        int[]        durations;
+        String[]     words;
+        String[]     guesses;
+
+        ColumnSegment(Path path, Set<Long> sources, int count) {
+            this.path = path;
+            this.sources = new long[sources.size()];
+            int i = 0;
+            for (long source : sources)
+                this.sources[i++] = source;
+            this.count = count;
+            this.wordLengths = new byte[count];
+            this.misses = new byte[count];
+            this.flags = new byte[count];
+        }
+
+        void addRecordsTo(List<GameRecord> records) {
+            for (int i = 0; i < count; i++)
+                records.add(new GameRecord(words[i], guesses[i], (flags[i] & GameRecord.FLAG_WON) != 0,
+                                           (flags[i] & GameRecord.FLAG_USED_HINT) != 0, startTimes[i], durations[i]));
+        }
+    }
+
+    private static final class Aggregate {
+        final int[] games = new int[0x100];
+        final int[] wins  = new int[0x100];
+        long        total;
+        long        misses;
+        long        hints;
+
+        void add(int wordLength, int misses, int flags) {
+            total++;
+            this.misses += misses;
+            games[wordLength]++;
+            if ((flags & GameRecord.FLAG_WON) != 0)
+                wins[wordLength]++;
+            if ((flags & GameRecord.FLAG_USED_HINT) != 0)
+                hints++;
+        }
+    }
+}
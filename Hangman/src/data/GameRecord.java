@@ -0,0 +1,79 @@
+package data;
+
+/**
+ * An immutable summary of one completed game, as it is stored in the {@link GameHistory}.
+ */
+public final class GameRecord {
+
+    public static final int FLAG_WON       = 1;
+    public static final int FLAG_USED_HINT = 1 << 1;
+
+    private final String  targetWord;
+    private final String  guesses;   // distinct guesses, in the order in which they were made
+    private final boolean won;
+    private final boolean usedHint;
+    private final long    startTime; // in milliseconds since the epoch
+    private final int     duration;  // in milliseconds
+    private final int     misses;
+
+    public GameRecord(String targetWord, String guesses, boolean won, boolean usedHint, long startTime, int duration) {
+        this.targetWord = targetWord;
+        this.guesses = guesses;
+        this.won = won;
+        this.usedHint = usedHint;
+        this.startTime = startTime;
+        this.duration = duration;
+        int misses = 0;
+        for (int i = 0; i < guesses.length(); i++) {
+            if (targetWord.indexOf(guesses.charAt(i)) < 0)
+                misses++;
+        }
+        this.misses = misses;
+    }
+
+    /**
+     * Builds the record of the game that has just ended in the given data component.
+     *
+     * @param gamedata The data of the game that has just ended.
+     * @param won      Whether or not the player found the target word.
+     * @return The record of the game.
+     */
+    public static GameRecord of(GameData gamedata, boolean won) {
+        GameSnapshot snapshot = gamedata.getSnapshot();
+        long         duration = System.currentTimeMillis() - snapshot.getStartTime();
+        return new GameRecord(snapshot.getTargetWord(), snapshot.getGuessOrder(), won, snapshot.isUsedHint(),
+                              snapshot.getStartTime(), (int) Math.min(Integer.MAX_VALUE, Math.max(0, duration)));
+    }
+
+    public String getTargetWord() {
+        return targetWord;
+    }
+
+    public String getGuesses() {
+        return guesses;
+    }
+
+    public boolean isWon() {
+        return won;
+    }
+
+    public boolean isUsedHint() {
+        return usedHint;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public int getDuration() {
+        return duration;
+    }
+
+    public int getMisses() {
+        return misses;
+    }
+
+    int getFlags() {
+        return (won ? FLAG_WON : 0) | (usedHint ? FLAG_USED_HINT : 0);
+    }
+}
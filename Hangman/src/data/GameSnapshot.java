@@ -0,0 +1,253 @@
+package data;
+
+import java.util.Arrays;
+
+/**
+ * The state of a game at one point in time. A snapshot is immutable: each change to the game, e.g., a guess, makes a
+ * new snapshot out of the last one, which the {@link GameData} component then publishes in one step (see
+ * {@link GameData#getSnapshot()}). Any thread may therefore read a snapshot, e.g., to save the game in the background,
+ * and always sees a consistent game, without any locking on either side.
+ * <p>
+ * The guesses are kept as bit sets over the letters 'a' to 'z' (see {@link SavedGame#bit(char)}), and the target word
+ * is a shared, immutable string. The guess order is shared as well: it is an append-only array of letters, of which
+ * each snapshot only sees as many as it has guessed, so a guess adds its letter to the array in place, and a new
+ * snapshot costs a single small object. Only when a guess is made from a snapshot that is not the latest, e.g., from
+ * one that was kept to undo to, is the order copied, so as to leave the letters of later snapshots as they are.
+ * Guesses outside 'a' to 'z', which the bit sets cannot hold, are only kept in the guess order, and count as good if
+ * the target word has them.
+ */
+public final class GameSnapshot {
+
+    private final String  targetWord;       // the target word, or null if there is no game
+    private final int     goodGuesses;
+    private final int     badGuesses;
+    private final int     remainingGuesses;
+    private final boolean usedHint;
+    private final Guesses guessOrder;       // every distinct guess, in the order in which it was made, shared
+    private final int     guessCount;       // how many of the guesses in the guess order this snapshot has made
+    private final long    startTime;        // when the game was started, in milliseconds since the epoch
+
+    /**
+     * The letters guessed in a game, in order, shared by its snapshots. Letters are only ever added past the end, so
+     * the first letters, which are all that a snapshot reads, never change once a snapshot has been published.
+     */
+    private static final class Guesses {
+
+        private final char[] letters;
+        private       int    length;  // how many letters have been added, by any snapshot
+
+        Guesses() {
+            this(new char[26], 0);
+        }
+
+        Guesses(char[] letters, int length) {
+            this.letters = letters;
+            this.length = length;
+        }
+    }
+
+    private GameSnapshot(String targetWord, int goodGuesses, int badGuesses, int remainingGuesses, boolean usedHint,
+                         Guesses guessOrder, int guessCount, long startTime) {
+        this.targetWord = targetWord;
+        this.goodGuesses = goodGuesses;
+        this.badGuesses = badGuesses;
+        this.remainingGuesses = remainingGuesses;
+        this.usedHint = usedHint;
+        this.guessOrder = guessOrder;
+        this.guessCount = guessCount;
+        this.startTime = startTime;
+    }
+
+    /**
+     * @param targetWord The target word of the game, or {@code null} if there is no game.
+     * @param usedHint   Whether the hint has been used.
+     * @return the snapshot of a game in which nothing has been guessed yet, starting now.
+     */
+    public static GameSnapshot start(String targetWord, boolean usedHint) {
+        return new GameSnapshot(targetWord, 0, 0, GameData.TOTAL_NUMBER_OF_GUESSES_ALLOWED, usedHint, new Guesses(), 0,
+                                System.currentTimeMillis());
+    }
+
+    /**
+     * @param saved The saved game, already validated.
+     * @return the snapshot of the saved game, resumed now. The restored guesses come first in the guess order, in
+     * alphabetical order.
+     */
+    public static GameSnapshot of(SavedGame saved) {
+        GameSnapshot snapshot = new GameSnapshot(saved.getTargetWord(), 0, 0, GameData.TOTAL_NUMBER_OF_GUESSES_ALLOWED,
+                                                 saved.isUsedHint(), new Guesses(), 0, System.currentTimeMillis());
+        return snapshot.withGuesses(saved.getGoodGuesses(), saved.getBadGuesses());
+    }
+
+    /**
+     * Makes a guess, which is a good one if the target word has the letter, and a bad one otherwise.
+     *
+     * @param c A letter.
+     * @return the snapshot after the guess, or this snapshot if the letter has been guessed already.
+     */
+    public GameSnapshot withGuess(char c) {
+        return targetWord != null && targetWord.indexOf(c) >= 0 ? withGoodGuess(c) : withBadGuess(c);
+    }
+
+    /**
+     * @param c A letter.
+     * @return the snapshot after a good guess of the letter, or this snapshot if the letter has been guessed already.
+     */
+    public GameSnapshot withGoodGuess(char c) {
+        if (isGuessed(c))
+            return this;
+        return new GameSnapshot(targetWord, goodGuesses | SavedGame.bit(c), badGuesses, remainingGuesses, usedHint,
+                                append(c), guessCount + 1, startTime);
+    }
+
+    /**
+     * @param c A letter.
+     * @return the snapshot after a bad guess of the letter, or this snapshot if the letter has been guessed already.
+     */
+    public GameSnapshot withBadGuess(char c) {
+        if (isGuessed(c))
+            return this;
+        return new GameSnapshot(targetWord, goodGuesses, badGuesses | SavedGame.bit(c), remainingGuesses - 1, usedHint,
+                                append(c), guessCount + 1, startTime);
+    }
+
+    /**
+     * Adds a letter to the guess order, right after the guesses of this snapshot: in place if this snapshot is the
+     * latest to have added a letter, and to a copy of its guesses otherwise.
+     *
+     * @return the guess order of the snapshot that guesses the letter.
+     */
+    private Guesses append(char c) {
+        synchronized (guessOrder) {
+            if (guessOrder.length == guessCount && guessCount < guessOrder.letters.length) {
+                guessOrder.letters[guessOrder.length++] = c;
+                return guessOrder;
+            }
+            char[] letters = Arrays.copyOf(guessOrder.letters, Math.max(26, guessCount * 2));
+            letters[guessCount] = c;
+            return new Guesses(letters, guessCount + 1);
+        }
+    }
+
+    public GameSnapshot withUsedHint(boolean usedHint) {
+        if (usedHint == this.usedHint)
+            return this;
+        return new GameSnapshot(targetWord, goodGuesses, badGuesses, remainingGuesses, usedHint, guessOrder, guessCount,
+                                startTime);
+    }
+
+    public GameSnapshot withTargetWord(String targetWord) {
+        return new GameSnapshot(targetWord, goodGuesses, badGuesses, remainingGuesses, usedHint, guessOrder, guessCount,
+                                startTime);
+    }
+
+    /**
+     * Replaces the guesses altogether. The guess order keeps the letters that are still guessed, in the order in which
+     * they were, followed by the letters newly guessed, in alphabetical order; a letter outside 'a' to 'z' is no longer
+     * guessed, as the bit sets cannot hold it. A letter that is both a good and a bad guess counts as a good one. The
+     * remaining guesses are counted anew from the bad guesses.
+     *
+     * @param goodGuesses The good guesses, as a bit set (see {@link SavedGame#bit(char)}).
+     * @param badGuesses  The bad guesses, as a bit set.
+     * @return the snapshot with the given guesses.
+     */
+    public GameSnapshot withGuesses(int goodGuesses, int badGuesses) {
+        badGuesses &= ~goodGuesses;
+        int     guessed   = goodGuesses | badGuesses;
+        int     ordered   = 0;
+        Guesses order     = new Guesses();
+        for (int i = 0; i < guessCount; i++) {
+            int bit = SavedGame.bit(guessOrder.letters[i]);
+            if ((guessed & bit) != 0) {
+                order.letters[order.length++] = guessOrder.letters[i];
+                ordered |= bit;
+            }
+        }
+        for (char c = 'a'; c <= 'z'; c++) {
+            if (((guessed & ~ordered) & SavedGame.bit(c)) != 0)
+                order.letters[order.length++] = c;
+        }
+        return new GameSnapshot(targetWord, goodGuesses, badGuesses,
+                                GameData.TOTAL_NUMBER_OF_GUESSES_ALLOWED - Integer.bitCount(badGuesses), usedHint,
+                                order, order.length, startTime);
+    }
+
+    /**
+     * @param c A letter.
+     * @return whether the letter has been guessed, be it a good or a bad guess.
+     */
+    public boolean isGuessed(char c) {
+        int bit = SavedGame.bit(c);
+        if (bit != 0)
+            return ((goodGuesses | badGuesses) & bit) != 0;
+        for (int i = 0; i < guessCount; i++) {
+            if (guessOrder.letters[i] == c)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param c A letter that has been guessed.
+     * @return whether the guess was a good one.
+     */
+    public boolean isGoodGuess(char c) {
+        int bit = SavedGame.bit(c);
+        return bit != 0 ? (goodGuesses & bit) != 0 : targetWord != null && targetWord.indexOf(c) >= 0;
+    }
+
+    /** @return whether every letter of the target word has been guessed. */
+    public boolean isSolved() {
+        if (targetWord == null)
+            return false;
+        for (int i = 0; i < targetWord.length(); i++) {
+            if (!isGuessed(targetWord.charAt(i)))
+                return false;
+        }
+        return true;
+    }
+
+    public String getTargetWord() {
+        return targetWord;
+    }
+
+    public int getGoodGuesses() {
+        return goodGuesses;
+    }
+
+    public int getBadGuesses() {
+        return badGuesses;
+    }
+
+    public int getRemainingGuesses() {
+        return remainingGuesses;
+    }
+
+    public boolean isUsedHint() {
+        return usedHint;
+    }
+
+    /** @return every distinct guess, in the order in which it was made. */
+    public String getGuessOrder() {
+        return new String(guessOrder.letters, 0, guessCount);
+    }
+
+    /**
+     * @param i The index of a guess, from 0 to {@link #getGuessCount()}, exclusive.
+     * @return the letter guessed.
+     */
+    public char getGuess(int i) {
+        if (i >= guessCount)
+            throw new IndexOutOfBoundsException(Integer.toString(i));
+        return guessOrder.letters[i];
+    }
+
+    /** @return the number of distinct letters guessed so far. */
+    public int getGuessCount() {
+        return guessCount;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+}
@@ -0,0 +1,57 @@
+package data;
+
+/**
+ * The state of a game as read from a saved file, detached from the {@link GameData} component of the application. The
+ * guesses are kept as bit sets over the letters 'a' to 'z', so that reading and validating a file does not need any
+ * boxing or collections.
+ */
+public final class SavedGame {
+
+    private final String  targetWord;
+    private final int     goodGuesses;
+    private final int     badGuesses;
+    private final boolean usedHint;
+
+    public SavedGame(String targetWord, int goodGuesses, int badGuesses, boolean usedHint) {
+        this.targetWord = targetWord;
+        this.goodGuesses = goodGuesses;
+        this.badGuesses = badGuesses;
+        this.usedHint = usedHint;
+    }
+
+    /**
+     * Takes a snapshot of the game being played.
+     *
+     * @param gamedata The data of the game being played.
+     * @return the snapshot, which is unaffected by any later guess.
+     */
+    public static SavedGame of(GameData gamedata) {
+        GameSnapshot snapshot = gamedata.getSnapshot();
+        return new SavedGame(snapshot.getTargetWord(), snapshot.getGoodGuesses(), snapshot.getBadGuesses(),
+                             snapshot.isUsedHint());
+    }
+
+    /**
+     * @param c A lowercase letter.
+     * @return the bit standing for the given letter in a set of guesses, or 0 if it is not a letter from 'a' to 'z'.
+     */
+    public static int bit(char c) {
+        return c >= 'a' && c <= 'z' ? 1 << (c - 'a') : 0;
+    }
+
+    public String getTargetWord() {
+        return targetWord;
+    }
+
+    public int getGoodGuesses() {
+        return goodGuesses;
+    }
+
+    public int getBadGuesses() {
+        return badGuesses;
+    }
+
+    public boolean isUsedHint() {
+        return usedHint;
+    }
+}
@@ -0,0 +1,109 @@
+package data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The words from which the target word of each game is chosen. The corpus is read once, keeping only the words made
+ * of the letters 'a' to 'z' alone (in either case), which are the only ones a game can be played, saved and loaded
+ * with (see {@link SavedGame#bit(char)} and {@link GameDataCodec}). It is immutable from then on, so a single corpus
+ * may be shared by any number of games and threads. Choosing a word is then a matter of picking a random index, instead of reading through the word list.
+ */
+public final class WordCorpus {
+
+    public static final String WORDS_RESOURCE = "words/words.txt";
+
+    private static WordCorpus shared; // the bundled word list, loaded once for every game that asks for it
+
+    private final String[] words;
+
+    private WordCorpus(String[] words) {
+        this.words = words;
+    }
+
+    /**
+     * Gets the word list bundled with the application, which is loaded the first time it is asked for, and shared by
+     * every game from then on, so that any number of games costs a single copy of the word list.
+     *
+     * @return the corpus.
+     * @throws IOException If the word list cannot be read.
+     */
+    public static synchronized WordCorpus getShared() throws IOException {
+        if (shared == null)
+            shared = load();
+        return shared;
+    }
+
+    /**
+     * Loads the word list bundled with the application.
+     *
+     * @return the corpus.
+     * @throws IOException If the word list cannot be read.
+     */
+    public static WordCorpus load() throws IOException {
+        URL wordsResource = WordCorpus.class.getClassLoader().getResource(WORDS_RESOURCE);
+        if (wordsResource == null)
+            throw new FileNotFoundException(String.format("Word list %s does not exist.", WORDS_RESOURCE));
+        return load(wordsResource);
+    }
+
+    /**
+     * Loads a word list, with one word on each line.
+     *
+     * @param wordsResource The word list.
+     * @return the corpus, in lowercase and without the words that have anything but the letters 'a' to 'z' in them.
+     * @throws IOException If the word list cannot be read.
+     */
+    public static WordCorpus load(URL wordsResource) throws IOException {
+        byte[]       content = readFully(wordsResource);
+        List<String> words   = new ArrayList<>(content.length / 8);
+        for (int start = 0, end; start < content.length; start = end + 1) {
+            end = start;
+            while (end < content.length && content[end] != '\n')
+                end++;
+            int     length       = end > start && content[end - 1] == '\r' ? end - start - 1 : end - start;
+            boolean asciiLetters = true;
+            for (int i = start; i < start + length; i++)
+                asciiLetters &= (content[i] >= 'a' && content[i] <= 'z') || (content[i] >= 'A' && content[i] <= 'Z');
+            if (length > 0 && asciiLetters)
+                words.add(new String(content, start, length, StandardCharsets.US_ASCII).toLowerCase());
+        }
+        return new WordCorpus(words.toArray(new String[words.size()]));
+    }
+
+    private static byte[] readFully(URL resource) throws IOException {
+        try (InputStream in = resource.openStream()) {
+            ByteArrayOutputStream bytes  = new ByteArrayOutputStream(1 << 16);
+            byte[]                buffer = new byte[1 << 16];
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer))
+                bytes.write(buffer, 0, read);
+            return bytes.toByteArray();
+        }
+    }
+
+    public int size() {
+        return words.length;
+    }
+
+    public String getWord(int index) {
+        return words[index];
+    }
+
+    /**
+     * @param random The source of randomness to use.
+     * @return a word chosen uniformly at random from the corpus.
+     * @throws IllegalStateException If the corpus is empty.
+     */
+    public String randomWord(Random random) {
+        if (words.length == 0)
+            throw new IllegalStateException("The word corpus is empty.");
+        return words[random.nextInt(words.length)];
+    }
+}
@@ -0,0 +1,144 @@
+package gui;
+
+import javafx.event.EventHandler;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import ui.RenderScheduler;
+
+import java.util.Objects;
+
+/**
+ * The board on which one game is shown: the namesake figure, and the game texts, i.e., the remaining guesses, the
+ * tiles of the word, the keyboard and the hint button. The workspace holds one board for each game on screen.
+ */
+public class GameBoard extends HBox {
+
+    private final BorderPane      figurePane;        // container to display the namesake graphic of the (potentially) hanging person
+    private final HangmanFigure   figure;            // the namesake graphic of the (potentially) hanging person
+    private final VBox            gameTextsPane;     // container to display the text-related parts of the game
+    private final KeyboardView    keyboard;          // the on-screen keyboard, showing the letters guessed so far
+    private final Button          hintButton;        // button for displaying hint
+    private final WordTiles       wordTiles;         // the tiles showing the target word, as far as it has been discovered
+    private final HBox            remainingGuessBox; // container to display the number of remaining guesses
+    private final Label           remainingGuesses;  // the number of remaining guesses
+    private final RenderScheduler renderScheduler;   // through which the board is updated, once per pulse
+    private       GameView        shown;             // what the board shows of its game, if any
+    private       GameView        latest;            // the latest view of the game, to be shown at the next pulse
+    private final Runnable        showLatest = () -> update(latest, shown); // the update that shows the latest view
+
+    /**
+     * @param renderScheduler The scheduler through which the board is to be updated.
+     * @param onHint          What to do when the hint button is clicked.
+     */
+    public GameBoard(RenderScheduler renderScheduler, EventHandler<? super MouseEvent> onHint) {
+        this.renderScheduler = renderScheduler;
+
+        figurePane = new BorderPane();
+        figurePane.setMinWidth(400);
+        figure = new HangmanFigure(500, 400);
+        figurePane.setCenter(figure);
+
+        wordTiles = new WordTiles();
+        remainingGuesses = new Label();
+        remainingGuessBox = new HBox(new Label("Remaining Guesses: "), remainingGuesses);
+        keyboard = new KeyboardView();
+        hintButton = new Button("Hint");
+        hintButton.setOnMouseClicked(onHint);
+
+        gameTextsPane = new VBox();
+        gameTextsPane.getChildren().setAll(remainingGuessBox, wordTiles, keyboard, hintButton);
+        update(GameView.EMPTY, null);
+
+        getChildren().setAll(figurePane, gameTextsPane);
+    }
+
+    /**
+     * Shows a game on the board, at the next pulse. The view is then compared with the one shown so far, and only what
+     * differs between them is updated, so that, e.g., a guess only uncovers its own letters and lights up its own key.
+     * If several views are rendered before the next pulse, only the latest is shown, all at once. The nodes of the
+     * board are never replaced, so there is nothing new to build, style or lay out from scratch.
+     *
+     * @param view The game to show.
+     */
+    public void render(GameView view) {
+        latest = view;
+        renderScheduler.schedule(showLatest);
+    }
+
+    /**
+     * Updates the nodes of the board from one view to another.
+     *
+     * @param view The view to show.
+     * @param last The view shown so far, or {@code null} if the nodes are to be updated from scratch.
+     */
+    private void update(GameView view, GameView last) {
+        if (view == last)
+            return;
+        boolean newGame = last == null || !Objects.equals(view.getWord(), last.getWord())
+                          || (view.getGoodGuesses() & last.getGoodGuesses()) != last.getGoodGuesses()
+                          || (last.isMissedRevealed() && !view.isMissedRevealed());
+
+        remainingGuessBox.setVisible(view.hasGame());
+        if (newGame || view.getRemainingGuesses() != last.getRemainingGuesses())
+            remainingGuesses.setText(Integer.toString(view.getRemainingGuesses()));
+
+        if (newGame && view.hasGame())
+            wordTiles.show(view.getWord(), view.getGoodGuesses());
+        else if (newGame)
+            wordTiles.clear();
+        else
+            wordTiles.reveal(view.getGoodGuesses() & ~last.getGoodGuesses());
+        if (view.isMissedRevealed() && (newGame || !last.isMissedRevealed()))
+            wordTiles.revealMissed();
+
+        keyboard.setVisible(view.hasGame());
+        if (last == null || (view.getGuesses() & last.getGuesses()) != last.getGuesses())
+            keyboard.show(view.getGuesses());
+        else
+            keyboard.markGuessed(view.getGuesses() & ~last.getGuesses());
+
+        if (last == null || view.getBadGuessCount() != last.getBadGuessCount())
+            figure.render(view.getBadGuessCount());
+
+        hintButton.setVisible(view.getHint() != GameView.Hint.HIDDEN);
+        hintButton.setDisable(view.getHint() == GameView.Hint.DISABLED);
+
+        shown = view;
+    }
+
+    public VBox getGameTextsPane() {
+        return gameTextsPane;
+    }
+
+    public HBox getRemainingGuessBox() {
+        return remainingGuessBox;
+    }
+
+    public Label getRemainingGuesses() {
+        return remainingGuesses;
+    }
+
+    public KeyboardView getKeyboard() {
+        return keyboard;
+    }
+
+    public WordTiles getWordTiles() {
+        return wordTiles;
+    }
+
+    public BorderPane getFigurePane() {
+        return figurePane;
+    }
+
+    public HangmanFigure getFigure() {
+        return figure;
+    }
+
+    public Button getHintButton() {
+        return hintButton;
+    }
+}
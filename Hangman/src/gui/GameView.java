@@ -0,0 +1,98 @@
+package gui;
+
+import data.SavedGame;
+
+/**
+ * What a board shows of a game, at one point in time. A view is immutable: the board is handed a new view
+ * whenever the game changes, and compares it with the view it shows to find out what to update (see
+ * {@link GameBoard#render(GameView)}).
+ * <p>
+ * Letters are kept as bit sets over the letters 'a' to 'z' (see {@link SavedGame#bit(char)}), so that comparing two
+ * views is a matter of a few bitwise operations.
+ */
+public final class GameView {
+
+    /** The state of the hint button. */
+    public enum Hint {
+        HIDDEN,
+        ENABLED,
+        DISABLED
+    }
+
+    /** The view of a board when no game is being played. */
+    public static final GameView EMPTY = new GameView(null, 0, 0, 0, Hint.HIDDEN, false);
+
+    private final String  word;             // the target word, or null if there is no game
+    private final int     wordLetters;      // the distinct letters of the target word
+    private final int     goodGuesses;
+    private final int     badGuesses;
+    private final int     remainingGuesses;
+    private final Hint    hint;
+    private final boolean missedRevealed;   // whether the letters never discovered are shown as well
+
+    public GameView(String word, int goodGuesses, int badGuesses, int remainingGuesses, Hint hint, boolean missedRevealed) {
+        this.word = word;
+        this.wordLetters = letters(word);
+        this.goodGuesses = goodGuesses;
+        this.badGuesses = badGuesses;
+        this.remainingGuesses = remainingGuesses;
+        this.hint = hint;
+        this.missedRevealed = missedRevealed;
+    }
+
+    /**
+     * @param word A word, or {@code null}.
+     * @return the set of distinct letters in the word.
+     */
+    public static int letters(String word) {
+        int letters = 0;
+        if (word != null) {
+            for (int i = 0; i < word.length(); i++)
+                letters |= SavedGame.bit(word.charAt(i));
+        }
+        return letters;
+    }
+
+    public String getWord() {
+        return word;
+    }
+
+    public boolean hasGame() {
+        return word != null;
+    }
+
+    public int getGoodGuesses() {
+        return goodGuesses;
+    }
+
+    public int getBadGuesses() {
+        return badGuesses;
+    }
+
+    /** @return every letter guessed so far, whether good or bad. */
+    public int getGuesses() {
+        return goodGuesses | badGuesses;
+    }
+
+    /** @return the number of bad guesses so far, i.e., the number of strokes of the figure. */
+    public int getBadGuessCount() {
+        return Integer.bitCount(badGuesses);
+    }
+
+    public int getRemainingGuesses() {
+        return remainingGuesses;
+    }
+
+    public Hint getHint() {
+        return hint;
+    }
+
+    public boolean isMissedRevealed() {
+        return missedRevealed;
+    }
+
+    /** @return whether every letter of the word has been discovered. */
+    public boolean isSolved() {
+        return word != null && (wordLetters & ~goodGuesses) == 0;
+    }
+}
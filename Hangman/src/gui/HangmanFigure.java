@@ -0,0 +1,164 @@
+package gui;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.ArcType;
+
+/**
+ * The namesake graphic of the (potentially) hanging person, drawn one stroke per bad guess.
+ * <p>
+ * The figure is drawn on three stacked canvases: one for the gallows, one for the body, and one on top for the stroke
+ * being animated. Each stroke is drawn once, when the bad guess that adds it is made, onto the canvas it belongs to,
+ * so nothing already drawn is ever drawn again. While a stroke is animated, only its own small region of the top
+ * canvas is redrawn on each frame, and once it is complete, it is moved down onto its permanent canvas.
+ */
+public class HangmanFigure extends Pane {
+
+    private static final double LINE_WIDTH         = 5;
+    private static final long   STROKE_DURATION_NS = 150_000_000L; // how long each new stroke takes to draw
+    private static final int    GALLOWS_STROKES    = 4;            // the strokes of the gallows, which come first
+
+    /**
+     * The strokes of the figure, indexed by the number of bad guesses that adds each of them, less one. Each is
+     * either a line, from (x1, y1) to (x2, y2), or an oval, within the bounds (x, y, width, height).
+     */
+    private static final Stroke[] STROKES = {
+            Stroke.line(50, 300, 200, 300),  // the base of the gallows
+            Stroke.line(50, 300, 50, 0),     // the post
+            Stroke.line(50, 0, 150, 0),      // the beam
+            Stroke.line(150, 0, 150, 40),    // the rope
+            Stroke.oval(130, 40, 40, 40),    // the head
+            Stroke.line(150, 80, 150, 180),  // the body
+            Stroke.line(150, 180, 130, 250), // the legs
+            Stroke.line(150, 180, 170, 250),
+            Stroke.line(150, 120, 130, 170), // and the arms
+            Stroke.line(150, 120, 170, 170)
+    };
+
+    private final Canvas gallowsLayer;
+    private final Canvas bodyLayer;
+    private final Canvas animationLayer;
+
+    private int     drawn;          // the number of strokes drawn so far, including the one being animated, if any
+    private boolean animating;      // whether the last stroke drawn is still being animated
+    private long    animationStart; // when the animation of that stroke started, or 0 until its first frame
+    private final AnimationTimer animation = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            if (animationStart == 0)
+                animationStart = now;
+            double          progress = Math.min(1, (now - animationStart) / (double) STROKE_DURATION_NS);
+            Stroke          stroke   = STROKES[drawn - 1];
+            GraphicsContext gc       = animationLayer.getGraphicsContext2D();
+            stroke.clear(gc);
+            stroke.draw(gc, progress);
+            if (progress >= 1)
+                finishAnimation();
+        }
+    };
+
+    public HangmanFigure(double width, double height) {
+        gallowsLayer = createLayer(width, height);
+        bodyLayer = createLayer(width, height);
+        animationLayer = createLayer(width, height);
+        getChildren().addAll(gallowsLayer, bodyLayer, animationLayer);
+        setPrefSize(width, height);
+    }
+
+    private static Canvas createLayer(double width, double height) {
+        Canvas          layer = new Canvas(width, height);
+        GraphicsContext gc    = layer.getGraphicsContext2D();
+        gc.setStroke(Color.BLACK);
+        gc.setLineWidth(LINE_WIDTH);
+        return layer;
+    }
+
+    /**
+     * Shows the figure as it stands after the given number of bad guesses. If that is exactly one more than shown so
+     * far, the new stroke is animated; otherwise (e.g., when a saved game is restored) the missing strokes are drawn
+     * at once. Going back to fewer strokes clears the figure first.
+     *
+     * @param badGuesses The number of bad guesses so far.
+     */
+    public void render(int badGuesses) {
+        int target = Math.max(0, Math.min(badGuesses, STROKES.length));
+        if (animating)
+            finishAnimation();
+        if (target < drawn)
+            reset();
+        if (target == drawn + 1) {
+            drawn++;
+            animating = true;
+            animationStart = 0;
+            animation.start();
+        } else {
+            while (drawn < target)
+                commit(drawn++);
+        }
+    }
+
+    /** Clears the whole figure, e.g., for a new game. */
+    public void reset() {
+        if (animating)
+            finishAnimation();
+        gallowsLayer.getGraphicsContext2D().clearRect(0, 0, gallowsLayer.getWidth(), gallowsLayer.getHeight());
+        bodyLayer.getGraphicsContext2D().clearRect(0, 0, bodyLayer.getWidth(), bodyLayer.getHeight());
+        drawn = 0;
+    }
+
+    /** Moves the stroke being animated onto its permanent layer, as if its animation had run to the end. */
+    private void finishAnimation() {
+        animation.stop();
+        animating = false;
+        STROKES[drawn - 1].clear(animationLayer.getGraphicsContext2D());
+        commit(drawn - 1);
+    }
+
+    private void commit(int stroke) {
+        Canvas layer = stroke < GALLOWS_STROKES ? gallowsLayer : bodyLayer;
+        STROKES[stroke].draw(layer.getGraphicsContext2D(), 1);
+    }
+
+    /** A single stroke of the figure, which can be drawn partially, as it is being animated. */
+    private static final class Stroke {
+
+        private final boolean oval;
+        private final double  x1, y1, x2, y2; // the ends of a line, or the bounds (x, y, width, height) of an oval
+
+        private Stroke(boolean oval, double x1, double y1, double x2, double y2) {
+            this.oval = oval;
+            this.x1 = x1;
+            this.y1 = y1;
+            this.x2 = x2;
+            this.y2 = y2;
+        }
+
+        static Stroke line(double x1, double y1, double x2, double y2) {
+            return new Stroke(false, x1, y1, x2, y2);
+        }
+
+        static Stroke oval(double x, double y, double width, double height) {
+            return new Stroke(true, x, y, width, height);
+        }
+
+        void draw(GraphicsContext gc, double progress) {
+            if (oval)
+                gc.strokeArc(x1, y1, x2, y2, 90, -360 * progress, ArcType.OPEN);
+            else
+                gc.strokeLine(x1, y1, x1 + (x2 - x1) * progress, y1 + (y2 - y1) * progress);
+        }
+
+        /** Clears the region covered by this stroke, allowing for the width of the line. */
+        void clear(GraphicsContext gc) {
+            double margin = LINE_WIDTH;
+            if (oval)
+                gc.clearRect(x1 - margin, y1 - margin, x2 + 2 * margin, y2 + 2 * margin);
+            else
+                gc.clearRect(Math.min(x1, x2) - margin, Math.min(y1, y2) - margin,
+                             Math.abs(x2 - x1) + 2 * margin, Math.abs(y2 - y1) + 2 * margin);
+        }
+    }
+}
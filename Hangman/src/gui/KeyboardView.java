@@ -0,0 +1,63 @@
+package gui;
+
+import data.SavedGame;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundFill;
+import javafx.scene.layout.Border;
+import javafx.scene.layout.BorderStroke;
+import javafx.scene.layout.BorderStrokeStyle;
+import javafx.scene.layout.FlowPane;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Text;
+
+/**
+ * The on-screen keyboard, with one key for each letter of the alphabet, showing which letters have been guessed.
+ * <p>
+ * The keys are built once, and only their background changes from then on, between two shared (and immutable)
+ * backgrounds. Since setting a key to the background it already has is not a change at all, showing a new game only
+ * touches the keys that were guessed in the last one.
+ */
+public class KeyboardView extends FlowPane {
+
+    private static final int        LETTERS       = 26;
+    private static final double     KEY_SIZE      = 40;
+    private static final Border     KEY_BORDER    = new Border(new BorderStroke(Color.WHITE, BorderStrokeStyle.SOLID, null, null));
+    private static final Background UNGUESSED_KEY = new Background(new BackgroundFill(Color.GREENYELLOW, null, null));
+    private static final Background GUESSED_KEY   = new Background(new BackgroundFill(Color.OLIVE, null, null));
+
+    private final StackPane[] keys = new StackPane[LETTERS];
+
+    public KeyboardView() {
+        for (int i = 0; i < LETTERS; i++) {
+            keys[i] = new StackPane(new Text(Character.toString((char) ('A' + i))));
+            keys[i].setPrefSize(KEY_SIZE, KEY_SIZE);
+            keys[i].setBorder(KEY_BORDER);
+            keys[i].setBackground(UNGUESSED_KEY);
+        }
+        getChildren().setAll(keys);
+    }
+
+    /**
+     * Shows the letters guessed so far in a game, e.g., one that has just been loaded.
+     *
+     * @param guesses The letters guessed so far, as a bit set (see {@link SavedGame#bit(char)}).
+     */
+    public void show(int guesses) {
+        for (int i = 0; i < LETTERS; i++)
+            keys[i].setBackground((guesses & (1 << i)) != 0 ? GUESSED_KEY : UNGUESSED_KEY);
+    }
+
+    /** @param guesses The letters just guessed, as a bit set, in addition to those already shown as guessed. */
+    public void markGuessed(int guesses) {
+        for (int i = 0; i < LETTERS; i++) {
+            if ((guesses & (1 << i)) != 0)
+                keys[i].setBackground(GUESSED_KEY);
+        }
+    }
+
+    /** Shows every letter as not yet guessed. */
+    public void reset() {
+        show(0);
+    }
+}
@@ -0,0 +1,107 @@
+package gui;
+
+import data.SavedGame;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundFill;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Text;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The tiles showing the target word, one letter on each tile, with the letters not yet discovered hidden.
+ * <p>
+ * Tiles are kept from one word to the next: only as many new tiles are built as the longest word shown so far needs,
+ * and the tiles that a shorter word does not need are merely hidden (and left out of the layout).
+ */
+public class WordTiles extends HBox {
+
+    private static final double     TILE_SIZE     = 20;
+    private static final double     TILE_SPACING  = 4;
+    private static final Background HIDDEN_LETTER = new Background(new BackgroundFill(Color.WHITE, null, null));
+    private static final Background MISSED_LETTER = new Background(new BackgroundFill(Color.GRAY, null, null));
+    private static final String[]   LOWERCASE     = new String[26]; // the text of each tile, shared by every tile
+
+    static {
+        for (int i = 0; i < LOWERCASE.length; i++)
+            LOWERCASE[i] = Character.toString((char) ('a' + i));
+    }
+
+    private final List<StackPane> tiles   = new ArrayList<>();
+    private final List<Text>      letters = new ArrayList<>();
+    private       String          word    = "";
+
+    public WordTiles() {
+        setSpacing(TILE_SPACING);
+        setStyle("-fx-background-color: transparent;");
+    }
+
+    /**
+     * Shows a word, with only the given letters of it discovered.
+     *
+     * @param word       The word to show.
+     * @param discovered The letters discovered so far, as a bit set (see {@link SavedGame#bit(char)}).
+     */
+    public void show(String word, int discovered) {
+        this.word = word;
+        while (tiles.size() < word.length())
+            addTile();
+        for (int i = 0; i < tiles.size(); i++) {
+            StackPane tile  = tiles.get(i);
+            boolean   inUse = i < word.length();
+            tile.setVisible(inUse);
+            tile.setManaged(inUse);
+            if (inUse) {
+                char letter = word.charAt(i);
+                Text text   = letters.get(i);
+                text.setText(letter >= 'a' && letter <= 'z' ? LOWERCASE[letter - 'a'] : Character.toString(letter));
+                text.setVisible((discovered & SavedGame.bit(letter)) != 0);
+                tile.setBackground(HIDDEN_LETTER);
+            }
+        }
+    }
+
+    /**
+     * Uncovers every occurrence of some letters in the word.
+     *
+     * @param discovered The letters to uncover, as a bit set.
+     */
+    public void reveal(int discovered) {
+        for (int i = 0; i < word.length(); i++) {
+            if ((discovered & SavedGame.bit(word.charAt(i))) != 0)
+                letters.get(i).setVisible(true);
+        }
+    }
+
+    /** Uncovers the letters that were never discovered, marking them as missed. */
+    public void revealMissed() {
+        for (int i = 0; i < word.length(); i++) {
+            if (!letters.get(i).isVisible()) {
+                tiles.get(i).setBackground(MISSED_LETTER);
+                letters.get(i).setVisible(true);
+            }
+        }
+    }
+
+    /** Hides every tile, until the next word is shown. */
+    public void clear() {
+        word = "";
+        for (StackPane tile : tiles) {
+            tile.setVisible(false);
+            tile.setManaged(false);
+        }
+    }
+
+    private void addTile() {
+        Text      text = new Text();
+        StackPane tile = new StackPane(text);
+        tile.setPrefSize(TILE_SIZE, TILE_SIZE);
+        tile.setBackground(HIDDEN_LETTER);
+        tiles.add(tile);
+        letters.add(text);
+        getChildren().add(tile);
+    }
+}
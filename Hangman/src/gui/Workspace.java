@@ -3,20 +3,29 @@ package gui;
 import apptemplate.AppTemplate;
 import components.AppWorkspaceComponent;
 import controller.HangmanController;
+import javafx.application.Platform;
 import javafx.collections.ObservableList;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
-import javafx.scene.canvas.Canvas;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TabPane;
 import javafx.scene.control.ToolBar;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Text;
+import javafx.stage.WindowEvent;
+import propertymanager.PropertiesListener;
 import propertymanager.PropertyManager;
 import ui.AppGUI;
+import ui.LazyRegion;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import static hangman.HangmanProperties.*;
 
@@ -33,18 +42,14 @@ public class Workspace extends AppWorkspaceComponent {
 
     Label             guiHeadingLabel;   // workspace (GUI) heading label
     HBox              headPane;          // conatainer to display the heading
-    HBox              bodyPane;          // container for the main game displays
+    LazyRegion<Node>  bodyPane;          // container for the main game displays, which is built when first needed
+    List<GameBoard>   boards;            // the board of each session, in the order of the sessions
     ToolBar           footToolbar;       // toolbar for game buttons
-    BorderPane        figurePane;        // container to display the namesake graphic of the (potentially) hanging person
-    Canvas            canvas;            // canvas to display the namesake graphic of the (potentially) hanging person
-    VBox              gameTextsPane;     // container to display the text-related parts of the game
-    FlowPane          alphabetPane;      // container to display the alphabet
-    Button            hintButton;        // button for displaying hint
-    HBox              guessedLetters;    // text area displaying all the letters guessed so far
-    HBox              remainingGuessBox; // container to display the number of remaining guesses
     Button            startGame;         // the button to start playing a game of Hangman
     HangmanController controller;
 
+    PropertiesListener.Registration propertiesRegistration; // keeps the heading up to date with the properties
+
     /**
      * Constructor for initializing the workspace, note that this constructor
      * will fully setup the workspace user interface for use.
@@ -59,6 +64,18 @@ public class Workspace extends AppWorkspaceComponent {
         controller = (HangmanController) gui.getFileController();    //new HangmanController(app, startGame); <-- THIS WAS A MAJOR BUG!??
         layoutGUI();     // initialize all the workspace (GUI) components including the containers and their layout
         setupHandlers(); // ... and set up event handling
+
+        propertiesRegistration = PropertyManager.getManager().addPropertiesListener(properties -> Platform.runLater(
+                () -> guiHeadingLabel.setText(properties.getPropertyValue(WORKSPACE_HEADING_LABEL))));
+        gui.getWindow().addEventHandler(WindowEvent.WINDOW_HIDDEN, e -> dispose());
+    }
+
+    /**
+     * Stops updating this workspace when the properties are reloaded, e.g., before another workspace replaces it. This
+     * is done when the window is hidden, at the latest.
+     */
+    public void dispose() {
+        propertiesRegistration.remove();
     }
 
     private void layoutGUI() {
@@ -71,23 +88,8 @@ public class Workspace extends AppWorkspaceComponent {
         headPane.getChildren().add(guiHeadingLabel);
         headPane.setAlignment(Pos.CENTER);
 
-        figurePane = new BorderPane();
-        figurePane.setMinWidth(400);
-        canvas = new Canvas(500, 400);
-        figurePane.setCenter(canvas);
-
-        guessedLetters = new HBox();
-        guessedLetters.setStyle("-fx-background-color: transparent;");
-        remainingGuessBox = new HBox();
-        alphabetPane = new FlowPane();
-        hintButton = new Button("Hint");
-        hintButton.setVisible(false);
-
-        gameTextsPane = new VBox();
-        gameTextsPane.getChildren().setAll(remainingGuessBox, guessedLetters, alphabetPane, hintButton);
-
-        bodyPane = new HBox();
-        bodyPane.getChildren().addAll(figurePane, gameTextsPane);
+        bodyPane = new LazyRegion<>(this::layoutGame);
+        bodyPane.prewarm();
 
         startGame = new Button("Start Playing");
         HBox blankBoxLeft  = new HBox();
@@ -106,8 +108,38 @@ public class Workspace extends AppWorkspaceComponent {
         workspace.getChildren().addAll(border);
     }
 
+    /**
+     * Lays out the game itself, i.e., a board for each session, which is not needed until a game is shown, and so is
+     * built once the workspace has first come up, or when a game is first shown, whichever comes first. With more than
+     * one session, each board is shown in its own tab, and selecting a tab selects its session.
+     */
+    private Node layoutGame() {
+        int sessions = Math.max(1, app.getSessions().size());
+        boards = new ArrayList<>(sessions);
+        for (int i = 0; i < sessions; i++)
+            boards.add(new GameBoard(getRenderScheduler(), e -> controller.useHint()));
+        if (sessions == 1)
+            return boards.get(0);
+
+        TabPane tabs = new TabPane();
+        for (int i = 0; i < sessions; i++) {
+            Tab tab = new Tab("Game " + (i + 1), boards.get(i));
+            tab.setClosable(false);
+            tabs.getTabs().add(tab);
+        }
+        tabs.getSelectionModel().selectedIndexProperty().addListener(
+                (observable, oldSession, newSession) -> controller.selectSession(newSession.intValue()));
+        return tabs;
+    }
+
     private void setupHandlers() {
         startGame.setOnMouseClicked(e -> controller.start());
+        gui.getPrimaryScene().addEventFilter(KeyEvent.KEY_PRESSED, e -> {
+            if (e.getCode() == KeyCode.F3)
+                togglePerformanceOverlay();
+            else if (e.getCode() == KeyCode.F4)
+                getInputLatencyTracker().dump();
+        });
     }
 
     /**
@@ -137,43 +169,51 @@ public class Workspace extends AppWorkspaceComponent {
         /* does nothing; use reinitialize() instead */
     }
 
-    public VBox getGameTextsPane() {
-        return gameTextsPane;
-    }
-
-    public HBox getRemainingGuessBox() {
-        return remainingGuessBox;
-    }
-
-    public FlowPane getAlphabetPane() {
-        return alphabetPane;
-    }
-
-    public BorderPane getFigurePane() {
-        return figurePane;
-    }
-
-    public Canvas getCanvas() {
-        return canvas;
+    /**
+     * @param session The index of the session.
+     * @return the board on which the session is shown, which is built now if the game area has not been built yet.
+     */
+    public GameBoard getBoard(int session) {
+        bodyPane.get();
+        return boards.get(session);
     }
 
-    public Button getHintButton() {
-        return hintButton;
+    /**
+     * Brings the board of a session into view, by selecting its tab when the boards are shown in tabs, and selects the
+     * session, so that the file controls apply to it.
+     *
+     * @param session The index of the session.
+     */
+    public void showSession(int session) {
+        Node game = bodyPane.get();
+        if (game instanceof TabPane)
+            ((TabPane) game).getSelectionModel().select(session);
+        controller.selectSession(session);
     }
 
     public Button getStartGame() {
         return startGame;
     }
 
-    public void reinitialize() {
-        guessedLetters = new HBox();
-        guessedLetters.setStyle("-fx-background-color: transparent;");
-        remainingGuessBox = new HBox();
-        alphabetPane = new FlowPane();
-        hintButton = new Button("Hint");
-        hintButton.setVisible(false);
-        gameTextsPane = new VBox();
-        gameTextsPane.getChildren().setAll(remainingGuessBox, guessedLetters, alphabetPane, hintButton);
-        bodyPane.getChildren().setAll(figurePane, gameTextsPane);
+    /**
+     * Clears the game of a session from the workspace, for the next game.
+     *
+     * @param session The index of the session.
+     */
+    public void reinitialize(int session) {
+        render(session, GameView.EMPTY);
+    }
+
+    /**
+     * Shows the game of a session on its board, at the next pulse (see {@link GameBoard#render(GameView)}). Nothing is
+     * built for a view without a game as long as no game has been shown, since the game area starts out empty anyway.
+     *
+     * @param session The index of the session.
+     * @param view    The game to show.
+     */
+    public void render(int session, GameView view) {
+        if (!bodyPane.isBuilt() && !view.hasGame())
+            return;
+        getBoard(session).render(view);
     }
 }
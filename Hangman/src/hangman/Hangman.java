@@ -5,9 +5,13 @@ import components.AppComponentsBuilder;
 import components.AppDataComponent;
 import components.AppFileComponent;
 import components.AppWorkspaceComponent;
+import controller.FileController;
+import controller.HangmanController;
 import data.GameData;
 import data.GameDataFile;
+import data.WordCorpus;
 import gui.Workspace;
+import propertymanager.PropertyManager;
 
 /**
  * @author Ritwik Banerjee
@@ -18,8 +22,8 @@ public class Hangman extends AppTemplate {
         launch(args);
     }
 
-    public String getFileControllerClass() {
-        return "HangmanController";
+    public Hangman() {
+        PropertyManager.getManager().registerPropertyType(HangmanProperties.class);
     }
 
     @Override
@@ -27,7 +31,7 @@ public class Hangman extends AppTemplate {
         return new AppComponentsBuilder() {
             @Override
             public AppDataComponent buildDataComponent() throws Exception {
-                return new GameData(Hangman.this);
+                return new GameData(Hangman.this, WordCorpus.getShared());
             }
 
             @Override
@@ -41,4 +45,9 @@ public class Hangman extends AppTemplate {
             }
         };
     }
+
+    @Override
+    public FileController makeFileControllerHook() {
+        return new HangmanController(this);
+    }
 }
@@ -0,0 +1,68 @@
+package hangman;
+
+import apptemplate.HeadlessRuntime;
+import components.AppComponentsBuilder;
+import components.AppDataComponent;
+import components.AppFileComponent;
+import data.GameData;
+import data.GameDataFile;
+import data.WordCorpus;
+
+/**
+ * Runs Hangman without its user interface, on a {@link HeadlessRuntime}. Run on its own, it plays a number of games
+ * (1000, unless another number is given) by guessing letters in order of their frequency in English, and reports how
+ * long start-up and play took, which makes it a convenient benchmark of the game logic.
+ */
+public class HeadlessHangman {
+
+    private static final String GUESSING_ORDER = "etaoinshrdlcumwfgypbvkjxqz";
+
+    public static void main(String[] args) throws Exception {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+
+        HeadlessRuntime runtime = new HeadlessRuntime(makeAppBuilderHook());
+        runtime.start();
+        System.out.println(runtime.getStartupProfiler().report());
+
+        GameData gamedata = (GameData) runtime.getDataComponent();
+        int      won      = 0;
+        long     start    = System.nanoTime();
+        for (int i = 0; i < games; i++) {
+            gamedata.init();
+            if (play(gamedata))
+                won++;
+        }
+        System.out.printf("Played %d games in %.2f ms, and won %d.%n", games, (System.nanoTime() - start) / 1e6, won);
+    }
+
+    /**
+     * @return a builder of the data and file components of Hangman, which need neither the application nor its
+     * user interface.
+     */
+    public static AppComponentsBuilder makeAppBuilderHook() {
+        return new AppComponentsBuilder() {
+            @Override
+            public AppDataComponent buildDataComponent() throws Exception {
+                return new GameData(null, WordCorpus.load());
+            }
+
+            @Override
+            public AppFileComponent buildFileComponent() throws Exception {
+                return new GameDataFile();
+            }
+        };
+    }
+
+    /**
+     * Plays the current game to its end, guessing just like the game on screen does (see {@link GameData#guess(char)}),
+     * and returns whether it was won.
+     */
+    private static boolean play(GameData gamedata) {
+        for (int i = 0; i < GUESSING_ORDER.length() && gamedata.getRemainingGuesses() > 0; i++) {
+            gamedata.guess(GUESSING_ORDER.charAt(i));
+            if (gamedata.getSnapshot().isSolved())
+                return true;
+        }
+        return false;
+    }
+}
@@ -4,17 +4,28 @@ import components.AppComponentsBuilder;
 import components.AppDataComponent;
 import components.AppFileComponent;
 import components.AppWorkspaceComponent;
+import controller.AppFileController;
+import controller.FileController;
 import javafx.application.Application;
 import javafx.stage.Stage;
 import propertymanager.PropertyManager;
+import settings.AppPropertyType;
 import settings.InitializationParameters;
 import ui.AppGUI;
 import ui.AppMessageDialogSingleton;
+import ui.RenderScheduler;
 import ui.YesNoCancelDialogSingleton;
 import xmlutils.InvalidXMLFileFormatException;
 
-import java.io.File;
+import java.io.IOException;
 import java.net.URL;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import static settings.AppPropertyType.*;
 import static settings.InitializationParameters.*;
@@ -24,22 +35,53 @@ import static settings.InitializationParameters.*;
  */
 public abstract class AppTemplate extends Application {
 
+    public static final String BINARY_STYLESHEET_EXTENSION = ".bss";
+
+    private static final Logger LOGGER = Logger.getLogger(AppTemplate.class.getName());
+
     private final PropertyManager propertyManager = PropertyManager.getManager();
-    private AppDataComponent      dataComponent; // to manage the app's data
+    private AppDataComponent      dataComponent; // to manage the app's data, in the session selected
+    private final List<AppDataComponent> sessions = new ArrayList<>(); // the data of each session of the app
     private AppFileComponent      fileComponent; // to manage the app's file I/O
     private AppWorkspaceComponent workspaceComponent; // to manage the app's GUI workspace
     private AppGUI                gui;
-
-    public String getFileControllerClass() {
-        return "AppFileController";
-    }
+    private AppComponentsBuilder  componentsBuilder; // to build the components of the app
+    private final StartupProfiler startupProfiler = new StartupProfiler(); // times the start-up of the app
 
     public abstract AppComponentsBuilder makeAppBuilderHook();
 
+    /**
+     * Builds the controller that responds to the file controls of the application. Applications with their own
+     * controller override this; the default is the framework's {@link AppFileController}.
+     *
+     * @return the file controller.
+     */
+    public FileController makeFileControllerHook() {
+        return new AppFileController(this);
+    }
+
+    /** @return the data component of the session selected. */
     public AppDataComponent getDataComponent() {
         return dataComponent;
     }
 
+    /**
+     * @return the data component of each session of the app, in order. There is one session unless the app asks for
+     * more through {@link AppPropertyType#APP_SESSIONS}, e.g., to show several games at once, each with its own data.
+     */
+    public List<AppDataComponent> getSessions() {
+        return Collections.unmodifiableList(sessions);
+    }
+
+    /**
+     * Selects the session that {@link #getDataComponent()}, and so the file controller, is to work with.
+     *
+     * @param session The index of the session.
+     */
+    public void selectSession(int session) {
+        dataComponent = sessions.get(session);
+    }
+
     public AppFileComponent getFileComponent() {
         return fileComponent;
     }
@@ -52,54 +94,168 @@ public abstract class AppTemplate extends Application {
         return gui;
     }
 
+    public AppComponentsBuilder getComponentsBuilder() {
+        return componentsBuilder;
+    }
+
+    public StartupProfiler getStartupProfiler() {
+        return startupProfiler;
+    }
+
     @Override
     public void start(Stage primaryStage) {
         AppMessageDialogSingleton  messageDialog = AppMessageDialogSingleton.getSingleton();
         YesNoCancelDialogSingleton yesNoDialog   = YesNoCancelDialogSingleton.getSingleton();
         messageDialog.init(primaryStage);
         yesNoDialog.init(primaryStage);
+        startupProfiler.mark("dialogs");
 
         try {
-            if (loadProperties(APP_PROPERTIES_XML) && loadProperties(WORKSPACE_PROPERTIES_XML)) {
-                AppComponentsBuilder builder = makeAppBuilderHook();
+            propertyManager.registerPropertyType(AppPropertyType.class);
+            if (loadProperties(APP_PROPERTIES_XML, WORKSPACE_PROPERTIES_XML)) {
+                if (Boolean.parseBoolean(propertyManager.getPropertyValue(PROPERTIES_HOT_RELOAD)))
+                    watchProperties();
+                startupProfiler.mark("properties");
+                componentsBuilder = makeAppBuilderHook();
 
-                fileComponent = builder.buildFileComponent();
-                dataComponent = builder.buildDataComponent();
+                // the file and data components are built in the background while the window is being put together
+                CompletableFuture<AppFileComponent> fileComponentFuture = componentsBuilder.buildFileComponentAsync();
+                CompletableFuture<AppDataComponent> dataComponentFuture = componentsBuilder.buildDataComponentAsync();
                 gui = (propertyManager.hasProperty(APP_WINDOW_WIDTH) && propertyManager.hasProperty(APP_WINDOW_HEIGHT))
-                        ? new AppGUI(primaryStage, propertyManager.getPropertyValue(APP_TITLE.toString()), this,
+                        ? new AppGUI(primaryStage, propertyManager.getPropertyValue(APP_TITLE), this,
                         Integer.parseInt(propertyManager.getPropertyValue(APP_WINDOW_WIDTH)),
                         Integer.parseInt(propertyManager.getPropertyValue(APP_WINDOW_HEIGHT)))
-                        : new AppGUI(primaryStage, propertyManager.getPropertyValue(APP_TITLE.toString()), this);
-                workspaceComponent = builder.buildWorkspaceComponent();
+                        : new AppGUI(primaryStage, propertyManager.getPropertyValue(APP_TITLE), this);
+                startupProfiler.mark("gui");
                 initStylesheet();
-                gui.initStyle();
-                workspaceComponent.initStyle();
+                startupProfiler.mark("stylesheet");
+
+                // the window is shown as soon as it has been put together, and its contents once the rest is ready,
+                // which is only done after the window has come up; until then, there is nothing in it to be used
+                gui.getAppPane().setVisible(false);
+                gui.getAppPane().setDisable(true);
+                RenderScheduler.afterNextPulse(() -> finishStart(fileComponentFuture, dataComponentFuture));
             }
         } catch (Exception e) {
-            AppMessageDialogSingleton dialog = AppMessageDialogSingleton.getSingleton();
-            dialog.show(propertyManager.getPropertyValue(PROPERTIES_LOAD_ERROR_TITLE.toString()),
-                    propertyManager.getPropertyValue(PROPERTIES_LOAD_ERROR_MESSAGE.toString()));
+            showStartError();
         }
     }
 
-    public boolean loadProperties(InitializationParameters propertyParameter) {
+    /**
+     * Finishes start-up once the window has been shown: waits for the file and data components, if they are not ready
+     * yet, builds the remaining sessions and the workspace, styles them, and shows the contents of the window.
+     */
+    private void finishStart(CompletableFuture<AppFileComponent> fileComponentFuture,
+                             CompletableFuture<AppDataComponent> dataComponentFuture) {
         try {
-            propertyManager.loadProperties(AppTemplate.class, propertyParameter.getParameter(), PROPERTIES_SCHEMA_XSD.getParameter());
+            startupProfiler.mark("window-shown");
+            fileComponent = fileComponentFuture.join();
+            dataComponent = dataComponentFuture.join();
+            sessions.add(dataComponent);
+            int sessionCount = propertyManager.hasProperty(APP_SESSIONS)
+                               ? Integer.parseInt(propertyManager.getPropertyValue(APP_SESSIONS)) : 1;
+            while (sessions.size() < sessionCount)
+                sessions.add(componentsBuilder.buildDataComponent());
+            startupProfiler.mark("components");
+            workspaceComponent = componentsBuilder.buildWorkspaceComponent();
+            startupProfiler.mark("workspace-component");
+            gui.initStyle();
+            workspaceComponent.initStyle();
+            gui.getAppPane().setDisable(false);
+            gui.getAppPane().setVisible(true);
+            startupProfiler.mark("style");
+            if (Boolean.parseBoolean(propertyManager.getPropertyValue(PERFORMANCE_OVERLAY)))
+                workspaceComponent.setPerformanceOverlayVisible(true);
+            profileFirstPulse();
+        } catch (Exception e) {
+            showStartError();
+        }
+    }
+
+    /** Starts reloading the properties files when they change, which the application does just as well without. */
+    private void watchProperties() {
+        try {
+            propertyManager.watchProperties();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Unable to watch the properties files; they will not be reloaded when they change", e);
+        }
+    }
+
+    private void showStartError() {
+        AppMessageDialogSingleton dialog = AppMessageDialogSingleton.getSingleton();
+        dialog.show(propertyManager.getPropertyValue(PROPERTIES_LOAD_ERROR_TITLE),
+                propertyManager.getPropertyValue(PROPERTIES_LOAD_ERROR_MESSAGE));
+    }
+
+    /**
+     * Ends start-up once the first pulse after it is over (see {@link RenderScheduler#afterNextPulse(Runnable)}), and
+     * then reports on it. The renderer draws the frame on a thread of its own, so it may reach the screen a little later.
+     */
+    private void profileFirstPulse() {
+        RenderScheduler.afterNextPulse(() -> {
+            startupProfiler.mark("first-pulse");
+            startupProfiler.reportIfRequested();
+        });
+    }
+
+    /**
+     * Loads the given properties files. When there are several, they are read concurrently, and a property defined in
+     * more than one of them takes its value from the last.
+     *
+     * @return {@code true} if all the files were loaded, and {@code false} (after telling the user) otherwise.
+     */
+    public boolean loadProperties(InitializationParameters... propertyParameters) {
+        List<String> xmlfilenames = new ArrayList<>(propertyParameters.length);
+        for (InitializationParameters propertyParameter : propertyParameters)
+            xmlfilenames.add(propertyParameter.getParameter());
+        try {
+            propertyManager.loadProperties(AppTemplate.class, xmlfilenames, PROPERTIES_SCHEMA_XSD.getParameter());
         } catch (InvalidXMLFileFormatException e) {
             AppMessageDialogSingleton dialog = AppMessageDialogSingleton.getSingleton();
-            dialog.show(propertyManager.getPropertyValue(PROPERTIES_LOAD_ERROR_TITLE.toString()),
-                    propertyManager.getPropertyValue(PROPERTIES_LOAD_ERROR_MESSAGE.toString()));
+            dialog.show(propertyManager.getPropertyValue(PROPERTIES_LOAD_ERROR_TITLE),
+                    propertyManager.getPropertyValue(PROPERTIES_LOAD_ERROR_MESSAGE));
             return false;
         }
 
         return true;
     }
 
+    /**
+     * Adds the stylesheet of the application to the scene. If there is a binary version of the stylesheet next to it,
+     * i.e., a file of the same name with the extension {@value #BINARY_STYLESHEET_EXTENSION}, that is used instead, as
+     * it spares JavaFX from having to parse the stylesheet at start-up. The binary version is made at build time, from
+     * the stylesheet, by {@code make-bss.sh} (which runs {@code javapackager -createbss}), and must be made again
+     * whenever the stylesheet changes; a binary version older than the stylesheet is taken to be out of date, and the
+     * stylesheet itself is used. The start-up profiler shows the difference it makes, in the {@code stylesheet},
+     * {@code style} and {@code first-pulse} phases.
+     */
     public void initStylesheet() {
-        URL cssResource = getClass().getClassLoader().getResource(propertyManager.getPropertyValue(APP_PATH_CSS) +
-                File.separator +
-                propertyManager.getPropertyValue(APP_CSS));
+        String stylesheet  = propertyManager.getPropertyValue(APP_PATH_CSS) + "/" + propertyManager.getPropertyValue(APP_CSS);
+        URL    cssResource = getClass().getClassLoader().getResource(stylesheet);
+        if (stylesheet.endsWith(".css")) {
+            String binaryStylesheet = stylesheet.substring(0, stylesheet.length() - 4) + BINARY_STYLESHEET_EXTENSION;
+            URL    bssResource      = getClass().getClassLoader().getResource(binaryStylesheet);
+            if (bssResource != null && (cssResource == null || lastModified(bssResource) >= lastModified(cssResource)))
+                cssResource = bssResource;
+        }
         assert cssResource != null;
         gui.getPrimaryScene().getStylesheets().add(cssResource.toExternalForm());
     }
+
+    /**
+     * @return when a resource was last modified, in milliseconds since the epoch, or 0 if that cannot be told. Within a
+     * jar file, this is when the jar file itself was, so resources packed together count as equally recent.
+     */
+    private static long lastModified(URL resource) {
+        try {
+            URLConnection connection = resource.openConnection();
+            try {
+                return connection.getLastModified();
+            } finally {
+                connection.getInputStream().close(); // which a file connection opens just to tell the time
+            }
+        } catch (IOException e) {
+            return 0;
+        }
+    }
 }
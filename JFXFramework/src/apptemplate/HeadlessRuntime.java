@@ -0,0 +1,69 @@
+package apptemplate;
+
+import components.AppComponentsBuilder;
+import components.AppDataComponent;
+import components.AppFileComponent;
+import propertymanager.PropertyManager;
+import settings.AppPropertyType;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static settings.InitializationParameters.*;
+
+/**
+ * This class runs the data and file components of an application without its user interface, and without starting
+ * the JavaFX toolkit at all, e.g., inside a batch job, a server or a benchmark. It loads the same properties as
+ * {@link AppTemplate}, and builds the components through the same {@link AppComponentsBuilder}, but it never builds
+ * the workspace or the file controller, which belong to the user interface.
+ * <p>
+ * The data component must therefore cope with there being no workspace to reload, and must not show any dialog.
+ */
+public class HeadlessRuntime {
+
+    private final PropertyManager      propertyManager = PropertyManager.getManager();
+    private final StartupProfiler      startupProfiler = new StartupProfiler();
+    private final AppComponentsBuilder componentsBuilder;
+    private       AppDataComponent     dataComponent;
+    private       AppFileComponent     fileComponent;
+
+    public HeadlessRuntime(AppComponentsBuilder componentsBuilder) {
+        this.componentsBuilder = componentsBuilder;
+    }
+
+    public AppDataComponent getDataComponent() {
+        return dataComponent;
+    }
+
+    public AppFileComponent getFileComponent() {
+        return fileComponent;
+    }
+
+    public StartupProfiler getStartupProfiler() {
+        return startupProfiler;
+    }
+
+    /**
+     * Loads the properties of the application, and then builds its data and file components concurrently.
+     *
+     * @throws Exception If the properties cannot be loaded, or if a component cannot be built.
+     */
+    public void start() throws Exception {
+        propertyManager.registerPropertyType(AppPropertyType.class);
+        propertyManager.loadProperties(HeadlessRuntime.class,
+                                       Arrays.asList(APP_PROPERTIES_XML.getParameter(), WORKSPACE_PROPERTIES_XML.getParameter()),
+                                       PROPERTIES_SCHEMA_XSD.getParameter());
+        startupProfiler.mark("properties");
+
+        CompletableFuture<AppFileComponent> fileComponentFuture = componentsBuilder.buildFileComponentAsync();
+        CompletableFuture<AppDataComponent> dataComponentFuture = componentsBuilder.buildDataComponentAsync();
+        try {
+            fileComponent = fileComponentFuture.join();
+            dataComponent = dataComponentFuture.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+        startupProfiler.mark("components");
+    }
+}
@@ -0,0 +1,106 @@
+package apptemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of latencies, in nanoseconds, with a fixed memory footprint however many values are recorded, and which
+ * any number of threads may record into and read from without locking.
+ * <p>
+ * Values are counted in log-linear buckets: each power of two is split into {@value #SUB_BUCKETS} buckets of equal
+ * width, so that a value is known to within about 3% of itself, from a nanosecond up to the largest {@code long}. A
+ * percentile is reported as the highest value its bucket stands for (but no higher than the largest value recorded).
+ * <p>
+ * Reading while other threads are recording gives a consistent enough picture for monitoring, but not an atomic
+ * snapshot: a value being recorded may be counted in one bucket before it is counted in the total, or vice versa.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS     = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS         = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong      total  = new AtomicLong();
+    private final AtomicLong      max    = new AtomicLong();
+
+    /**
+     * Records a latency. Negative values are counted as zero.
+     *
+     * @param nanos The latency, in nanoseconds.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        total.incrementAndGet();
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    public long getCount() {
+        return total.get();
+    }
+
+    /** @return the largest latency recorded, in nanoseconds, or 0 if there is none. */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @param percentile The percentile, from 0 to 100, e.g., 99.9.
+     * @return the latency, in nanoseconds, that the given percentage of the latencies recorded do not exceed, or 0 if
+     * none has been recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long count = total.get();
+        if (count == 0)
+            return 0;
+        long rank       = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * count));
+        long cumulative = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            cumulative += counts.get(bucket);
+            if (cumulative >= rank)
+                return Math.min(highestValueIn(bucket), max.get());
+        }
+        return max.get();
+    }
+
+    /**
+     * Adds the count of every non-empty bucket to a report, one bucket on each line, as the lowest and highest values
+     * it stands for and its count, separated by commas.
+     *
+     * @param report The report to which to add.
+     * @return the report.
+     */
+    public StringBuilder appendBuckets(StringBuilder report) {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            long count = counts.get(bucket);
+            if (count > 0) {
+                report.append(lowestValueIn(bucket)).append(',').append(highestValueIn(bucket)).append(',')
+                      .append(count).append(System.lineSeparator());
+            }
+        }
+        return report;
+    }
+
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int offset   = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + offset;
+    }
+
+    private static long lowestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS)
+            return bucket;
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    private static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS)
+            return bucket;
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        return lowestValueIn(bucket) + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -0,0 +1,130 @@
+package apptemplate;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Records how long each phase of the start-up of an application takes. A phase ends when it is marked, and the next
+ * one begins right then, so the phases add up to the whole start-up time. The time the JVM took to get as far as
+ * creating the application (which includes the launch of the JavaFX toolkit) is reported as well.
+ * <p>
+ * The report is produced once start-up is done, according to the system property {@value #REPORT_PROPERTY}:
+ * <ul>
+ * <li>{@code true}: the report is printed to the standard output;</li>
+ * <li>a file name: one line of comma-separated phase durations is appended to that file, so that cold and warm starts,
+ * or successive builds, can be compared. The line is preceded by a header line naming the phases whenever they differ
+ * from those of the last header in the file, e.g., when the file is new, or once a phase has been added;</li>
+ * <li>unset: nothing is reported.</li>
+ * </ul>
+ * e.g., {@code -Djfxframework.startup.report=startup.csv}.
+ */
+public final class StartupProfiler {
+
+    public static final String REPORT_PROPERTY = "jfxframework.startup.report";
+    public static final String LAUNCH_PHASE    = "launch";
+
+    private final long              startTime       = System.nanoTime();
+    private final long              startTimeMillis = System.currentTimeMillis();
+    private final Map<String, Long> phases          = new LinkedHashMap<>(); // the duration of each phase, in nanoseconds
+    private       long              lastMark        = startTime;
+
+    /**
+     * Ends the current phase.
+     *
+     * @param phase The name of the phase that just ended.
+     */
+    public void mark(String phase) {
+        long now      = System.nanoTime();
+        Long previous = phases.get(phase);
+        phases.put(phase, previous == null ? now - lastMark : previous + now - lastMark);
+        lastMark = now;
+    }
+
+    /** @return the duration of each phase so far, in nanoseconds and in the order in which the phases ended. */
+    public Map<String, Long> getPhases() {
+        return Collections.unmodifiableMap(phases);
+    }
+
+    /** @return the time from the creation of this profiler to the end of the last phase, in nanoseconds. */
+    public long getTotal() {
+        return lastMark - startTime;
+    }
+
+    /**
+     * @return the time from the start of the JVM to the creation of this profiler, in nanoseconds (but only precise to
+     * the millisecond).
+     */
+    public long getLaunchTime() {
+        return (startTimeMillis - ManagementFactory.getRuntimeMXBean().getStartTime()) * 1_000_000L;
+    }
+
+    public String report() {
+        StringBuilder report = new StringBuilder("Start-up phases (ms):");
+        report.append(String.format(Locale.ROOT, "%n  %-24s %9.2f", LAUNCH_PHASE, getLaunchTime() / 1e6));
+        for (Map.Entry<String, Long> phase : phases.entrySet())
+            report.append(String.format(Locale.ROOT, "%n  %-24s %9.2f", phase.getKey(), phase.getValue() / 1e6));
+        report.append(String.format(Locale.ROOT, "%n  %-24s %9.2f", "total", (getLaunchTime() + getTotal()) / 1e6));
+        return report.toString();
+    }
+
+    /**
+     * Appends the phase durations, in milliseconds, to a CSV file, writing a header first unless the last header in the
+     * file already names the same phases. The numbers are always written with a '.' as the decimal separator.
+     *
+     * @param file The file to which to append.
+     * @throws IOException If the file cannot be written.
+     */
+    public void export(Path file) throws IOException {
+        StringBuilder header = new StringBuilder("timestamp,").append(LAUNCH_PHASE);
+        StringBuilder line   = new StringBuilder().append(startTimeMillis).append(',')
+                                                  .append(String.format(Locale.ROOT, "%.2f", getLaunchTime() / 1e6));
+        for (Map.Entry<String, Long> phase : phases.entrySet()) {
+            header.append(',').append(phase.getKey());
+            line.append(',').append(String.format(Locale.ROOT, "%.2f", phase.getValue() / 1e6));
+        }
+        header.append(",total").append(System.lineSeparator());
+        line.append(',').append(String.format(Locale.ROOT, "%.2f", (getLaunchTime() + getTotal()) / 1e6))
+            .append(System.lineSeparator());
+
+        String content = header.toString().equals(lastHeader(file)) ? line.toString() : header.append(line).toString();
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /** @return the last header line in the file, ending with a line separator, or {@code null} if there is none. */
+    private static String lastHeader(Path file) throws IOException {
+        if (!Files.exists(file))
+            return null;
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        for (int i = lines.size() - 1; i >= 0; i--) {
+            if (lines.get(i).startsWith("timestamp,"))
+                return lines.get(i) + System.lineSeparator();
+        }
+        return null;
+    }
+
+    /** Prints or exports the report, if it has been asked for through {@value #REPORT_PROPERTY}. */
+    public void reportIfRequested() {
+        String destination = System.getProperty(REPORT_PROPERTY);
+        if (destination == null || destination.isEmpty() || destination.equalsIgnoreCase("false"))
+            return;
+        if (destination.equalsIgnoreCase("true")) {
+            System.out.println(report());
+            return;
+        }
+        try {
+            export(Paths.get(destination));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
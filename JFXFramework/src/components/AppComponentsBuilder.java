@@ -1,5 +1,8 @@
 package components;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 /**
  * This interface provides the structure required for a builder
  * object used for initializing all components for this application.
@@ -11,9 +14,59 @@ package components;
  */
 public interface AppComponentsBuilder {
 
+    /**
+     * Builds the data component of one session. This is called once for each session of the application (see
+     * {@code AppTemplate.getSessions()}), so whatever the sessions can share, e.g., immutable data read from a file,
+     * is best built once and handed to every data component, rather than built again for each.
+     *
+     * @return a new data component.
+     * @throws Exception If the data component cannot be built.
+     */
     AppDataComponent buildDataComponent() throws Exception;
 
     AppFileComponent buildFileComponent() throws Exception;
 
-    AppWorkspaceComponent buildWorkspaceComponent() throws Exception;
+    /**
+     * Builds the workspace component. Applications with a user interface override this; the default, which builds no
+     * workspace at all, is for those that only run without one, e.g., on a {@code HeadlessRuntime}, which never asks
+     * for a workspace.
+     *
+     * @return the workspace component, or {@code null} if there is none.
+     * @throws Exception If the workspace component cannot be built.
+     */
+    default AppWorkspaceComponent buildWorkspaceComponent() throws Exception {
+        return null;
+    }
+
+    /**
+     * Starts building the data component in the background. The framework does this while it builds the rest of the
+     * user interface, and waits for the component only when the workspace is about to be built. The data component
+     * must therefore not touch the user interface while it is being built.
+     *
+     * @return the data component, once built.
+     */
+    default CompletableFuture<AppDataComponent> buildDataComponentAsync() {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return buildDataComponent();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Starts building the file component in the background, just like {@link #buildDataComponentAsync()}.
+     *
+     * @return the file component, once built.
+     */
+    default CompletableFuture<AppFileComponent> buildFileComponentAsync() {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return buildFileComponent();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
 }
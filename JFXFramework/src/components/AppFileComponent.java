@@ -19,4 +19,52 @@ public interface AppFileComponent {
     void loadData(AppDataComponent data, Path filePath) throws IOException;
 
     void exportData(AppDataComponent data, Path filePath) throws IOException;
+
+    /**
+     * Prepares to save data in the background. This is called on the thread that owns the data (i.e., the JavaFX
+     * application thread), and returns the actual work of writing the file, which may then be done on any thread.
+     * <p>
+     * By default, the work simply calls {@link #saveData(AppDataComponent, Path)}, and so reads the data only once it
+     * is done. A component whose data may change in the meantime should override this to take a copy of the data
+     * right away.
+     *
+     * @param data     The data to save.
+     * @param filePath The file to which to save it.
+     * @return the work of saving the data.
+     */
+    default FileOperation prepareSave(AppDataComponent data, Path filePath) {
+        return () -> saveData(data, filePath);
+    }
+
+    /**
+     * Reads a file in the background, the counterpart of {@link #prepareSave(AppDataComponent, Path)}. This is called
+     * away from the JavaFX application thread, and must not touch the data of the application; what it returns is then
+     * applied to the data on the application thread, once the file has been read.
+     * <p>
+     * By default, nothing is read here, and applying the result simply calls
+     * {@link #loadData(AppDataComponent, Path)}, on the application thread. A component should override this to read
+     * and check the whole file here, so that only the swap of the data is left to the application thread, and an
+     * invalid file leaves the data as it was.
+     *
+     * @param filePath The file from which to load the data.
+     * @return what was read, to be applied to the data.
+     * @throws IOException If the file cannot be read.
+     */
+    default LoadedData prepareLoad(Path filePath) throws IOException {
+        return data -> loadData(data, filePath);
+    }
+
+    /** Some work on files, which may be done on any thread. */
+    @FunctionalInterface
+    interface FileOperation {
+
+        void perform() throws IOException;
+    }
+
+    /** Data read from a file, to be applied on the thread that owns the data, i.e., the JavaFX application thread. */
+    @FunctionalInterface
+    interface LoadedData {
+
+        void applyTo(AppDataComponent data) throws IOException;
+    }
 }
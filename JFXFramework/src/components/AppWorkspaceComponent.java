@@ -2,6 +2,9 @@ package components;
 
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.Pane;
+import ui.InputLatencyTracker;
+import ui.PerformanceOverlay;
+import ui.RenderScheduler;
 
 /**
  * This abstract class provides the structure for workspace components in
@@ -18,6 +21,14 @@ public abstract class AppWorkspaceComponent implements AppStyleArbiter {
     protected Pane    workspace;          // The workspace that can be customized depending on what the app needs
     protected boolean workspaceActivated; // Denotes whether or not the workspace is activated
 
+    private       PerformanceOverlay  performanceOverlay;                        // created the first time it is shown
+    private final RenderScheduler     renderScheduler     = new RenderScheduler(); // batches updates to the workspace
+    private final InputLatencyTracker inputLatencyTracker;                       // times the response to input
+
+    protected AppWorkspaceComponent() {
+        inputLatencyTracker = new InputLatencyTracker(renderScheduler);
+    }
+
     /**
      * When called this function puts the workspace into the window, revealing the controls for editing work.
      *
@@ -49,6 +60,51 @@ public abstract class AppWorkspaceComponent implements AppStyleArbiter {
      */
     public Pane getWorkspace() { return workspace; }
 
+    /**
+     * Shows or hides the performance overlay over the workspace. Until the overlay is first shown, it does not even
+     * exist, and once hidden, it stops measuring, so it costs nothing unless it is shown.
+     *
+     * @param visible Whether the overlay is to be shown.
+     */
+    public void setPerformanceOverlayVisible(boolean visible) {
+        if (visible && performanceOverlay == null)
+            performanceOverlay = new PerformanceOverlay(renderScheduler);
+        if (visible)
+            performanceOverlay.show(workspace);
+        else if (performanceOverlay != null)
+            performanceOverlay.hide();
+    }
+
+    public boolean isPerformanceOverlayVisible() {
+        return performanceOverlay != null && performanceOverlay.isShowing();
+    }
+
+    public void togglePerformanceOverlay() {
+        setPerformanceOverlayVisible(!isPerformanceOverlayVisible());
+    }
+
+    /**
+     * Notes that an input has just been decided on, and that the update of the workspace that reflects it has been
+     * scheduled (see {@link #getRenderScheduler()}), so that the time it takes for the input to be handled, i.e., for
+     * that update to be applied, and to show, can be measured. This is to be called right after scheduling the update.
+     *
+     * @param received When the input was received, as given by {@link System#nanoTime()}.
+     */
+    public void inputHandled(long received) {
+        inputLatencyTracker.inputDecided(received);
+        if (performanceOverlay != null)
+            performanceOverlay.inputReceived(received);
+    }
+
+    public InputLatencyTracker getInputLatencyTracker() {
+        return inputLatencyTracker;
+    }
+
+    /** @return the scheduler through which to update the workspace, at most once per pulse. */
+    public RenderScheduler getRenderScheduler() {
+        return renderScheduler;
+    }
+
     /**
      * This method is defined completely at the concrete implementation level.
      */
@@ -1,10 +1,12 @@
 package controller;
 
 import apptemplate.AppTemplate;
+import components.AppFileComponent;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.stage.FileChooser;
 import javafx.stage.FileChooser.ExtensionFilter;
 import propertymanager.PropertyManager;
+import ui.AppGUI;
 import ui.AppMessageDialogSingleton;
 import ui.YesNoCancelDialogSingleton;
 
@@ -12,6 +14,7 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 
 import static settings.AppPropertyType.*;
@@ -44,27 +47,18 @@ public class AppFileController implements FileController {
      * first.
      */
     public void handleNewRequest() {
-        AppMessageDialogSingleton messageDialog   = AppMessageDialogSingleton.getSingleton();
-        PropertyManager           propertyManager = PropertyManager.getManager();
-        try {
-            boolean continueToMakeNew = true;
-            if (!saved.getValue())
-                continueToMakeNew = promptToSave();
-
-            // IF THE USER REALLY WANTS TO MAKE A NEW COURSE
-            if (continueToMakeNew) {
-                appTemplate.getDataComponent().reset();                // reset the data (should be reflected in GUI)
-                appTemplate.getWorkspaceComponent().reloadWorkspace(); // load data into workspace
-                ensureActivatedWorkspace();                            // ensure workspace is activated
-                saved.set(false);                                      // new workspace is unsaved
-                currentWorkFile = null;                                // new workspace has never been saved to a file
-                //                messageDialog.show(propertyManager.getPropertyValue(NEW_COMPLETED_TITLE),
-                //                                   propertyManager.getPropertyValue(NEW_COMPLETED_MESSAGE));
-            }
-        } catch (IOException ioe) {
-            // SOMETHING WENT WRONG, PROVIDE FEEDBACK
-            messageDialog.show(propertyManager.getPropertyValue(NEW_ERROR_TITLE), propertyManager.getPropertyValue(NEW_ERROR_MESSAGE));
-        }
+        if (!saved.getValue())
+            promptToSave(this::newWork);
+        else
+            newWork();
+    }
+
+    private void newWork() {
+        appTemplate.getDataComponent().reset();                // reset the data (should be reflected in GUI)
+        appTemplate.getWorkspaceComponent().reloadWorkspace(); // load data into workspace
+        ensureActivatedWorkspace();                            // ensure workspace is activated
+        saved.set(false);                                      // new workspace is unsaved
+        currentWorkFile = null;                                // new workspace has never been saved to a file
     }
 
     private void ensureActivatedWorkspace() {
@@ -76,68 +70,149 @@ public class AppFileController implements FileController {
      * know the name of the file, so we won't need to prompt the user.
      */
     public void handleSaveRequest() {
-        PropertyManager propertyManager = PropertyManager.getManager();
         try {
-            if (currentWorkFile != null)
-                saveWork(currentWorkFile);
-            else {
-                FileChooser fileChooser = new FileChooser();
-                URL         workDirURL  = AppTemplate.class.getClassLoader().getResource(APP_WORKDIR_PATH.getParameter());
-                if (workDirURL == null)
-                    throw new FileNotFoundException("Work folder not found under resources.");
-
-                File initialDir = new File(workDirURL.getFile());
-                fileChooser.setInitialDirectory(initialDir);
-                fileChooser.setTitle(propertyManager.getPropertyValue(SAVE_WORK_TITLE));
-                fileChooser.getExtensionFilters().addAll(new ExtensionFilter(propertyManager.getPropertyValue(WORK_FILE_EXT_DESC),
-                        propertyManager.getPropertyValue(WORK_FILE_EXT)));
-                File selectedFile = fileChooser.showSaveDialog(appTemplate.getGUI().getWindow());
-                if (selectedFile != null)
-                    saveWork(selectedFile);
-            }
+            saveWork(null);
         } catch (IOException ioe) {
-            AppMessageDialogSingleton dialog = AppMessageDialogSingleton.getSingleton();
-            dialog.show(propertyManager.getPropertyValue(SAVE_ERROR_TITLE), propertyManager.getPropertyValue(SAVE_ERROR_MESSAGE));
+            showSaveError();
         }
     }
 
+    /**
+     * Loads work from a file of the user's choice, prompting the user to save the current work first if it is unsaved.
+     * The file is read in the background (see {@link AppFileComponent#prepareLoad(Path)}), with the file controls
+     * disabled, and the work is only replaced once the file has been read.
+     */
     @Override
     public void handleLoadRequest() {
+        if (!saved.getValue())
+            promptToSave(this::chooseAndLoad);
+        else
+            chooseAndLoad();
+    }
+
+    private void chooseAndLoad() {
+        PropertyManager propertyManager = PropertyManager.getManager();
+        URL             workDirURL      = AppTemplate.class.getClassLoader().getResource(APP_WORKDIR_PATH.getParameter());
+        if (workDirURL == null) {
+            showLoadError();
+            return;
+        }
+        FileChooser filechooser = new FileChooser();
+        filechooser.setInitialDirectory(new File(workDirURL.getFile()));
+        filechooser.setTitle(propertyManager.getPropertyValue(LOAD_WORK_TITLE));
+
+        String description = propertyManager.getPropertyValue(WORK_FILE_EXT_DESC);
+        String extension   = propertyManager.getPropertyValue(WORK_FILE_EXT);
+        ExtensionFilter extFilter = new ExtensionFilter(String.format("%s (*.%s)", description, extension),
+                String.format("*.%s", extension));
+        filechooser.getExtensionFilters().add(extFilter);
+        File selectedFile = filechooser.showOpenDialog(appTemplate.getGUI().getWindow());
+        if (selectedFile != null)
+            loadWork(selectedFile);
+    }
+
+    /**
+     * A helper method to load work. Once the file has been read, the work is replaced, the workspace is reloaded, the
+     * file becomes the current work file, and the user is notified.
+     *
+     * @param selectedFile The file from which the work will be loaded.
+     */
+    private void loadWork(File selectedFile) {
+        AppGUI           gui           = appTemplate.getGUI();
+        AppFileComponent fileComponent = appTemplate.getFileComponent();
+        Path             source        = Paths.get(selectedFile.getAbsolutePath());
+        gui.runFileOperation(() -> fileComponent.prepareLoad(source), loaded -> {
+            try {
+                loaded.applyTo(appTemplate.getDataComponent());
+            } catch (IOException e) {
+                showLoadError();
+                return;
+            }
+            appTemplate.getWorkspaceComponent().reloadWorkspace();
+            ensureActivatedWorkspace();
+            currentWorkFile = selectedFile;
+            saved.set(true);
+
+            AppMessageDialogSingleton dialog = AppMessageDialogSingleton.getSingleton();
+            PropertyManager           props  = PropertyManager.getManager();
+            dialog.show(props.getPropertyValue(LOAD_COMPLETED_TITLE), props.getPropertyValue(LOAD_COMPLETED_MESSAGE));
+        }, error -> showLoadError(), gui.getNewButton(), gui.getSaveButton(), gui.getLoadButton());
+    }
 
+    private void showLoadError() {
+        AppMessageDialogSingleton dialog = AppMessageDialogSingleton.getSingleton();
+        PropertyManager           props  = PropertyManager.getManager();
+        dialog.show(props.getPropertyValue(LOAD_ERROR_TITLE), props.getPropertyValue(LOAD_ERROR_MESSAGE));
+    }
+
+    /**
+     * Saves the work to the current work file, asking the user for one first if the work has never been saved.
+     *
+     * @param then What to do once the work has been saved (or if the user does not pick a file), if anything.
+     * @throws IOException If the work folder cannot be found.
+     */
+    private void saveWork(Runnable then) throws IOException {
+        PropertyManager propertyManager = PropertyManager.getManager();
+        if (currentWorkFile != null)
+            saveWork(currentWorkFile, then);
+        else {
+            FileChooser filechooser = new FileChooser();
+            URL         workDirURL  = AppTemplate.class.getClassLoader().getResource(APP_WORKDIR_PATH.getParameter());
+            if (workDirURL == null)
+                throw new FileNotFoundException("Work folder not found under resources.");
+
+            File initialDir = new File(workDirURL.getFile());
+            filechooser.setInitialDirectory(initialDir);
+            filechooser.setTitle(propertyManager.getPropertyValue(SAVE_WORK_TITLE));
+
+            String description = propertyManager.getPropertyValue(WORK_FILE_EXT_DESC);
+            String extension   = propertyManager.getPropertyValue(WORK_FILE_EXT);
+            ExtensionFilter extFilter = new ExtensionFilter(String.format("%s (*.%s)", description, extension),
+                    String.format("*.%s", extension));
+            filechooser.getExtensionFilters().add(extFilter);
+            File selectedFile = filechooser.showSaveDialog(appTemplate.getGUI().getWindow());
+            if (selectedFile != null)
+                saveWork(selectedFile, then);
+            else if (then != null)
+                then.run();
+        }
     }
 
     /**
-     * A helper method to save work. It saves the work, marks the current work file as saved, notifies the user, and
-     * updates the appropriate controls in the user interface
+     * A helper method to save work. The work is written in the background, with the file controls disabled, after
+     * which the current work file is marked as saved, the user is notified, and whatever was waiting for the work to be
+     * saved goes on.
      *
      * @param selectedFile The file to which the work will be saved.
-     * @throws IOException
+     * @param then         What to do once the work has been saved, if anything.
      */
-    private void saveWork(File selectedFile) throws IOException {
-        appTemplate.getFileComponent()
-                .saveData(appTemplate.getDataComponent(), Paths.get(selectedFile.getAbsolutePath()));
+    private void saveWork(File selectedFile, Runnable then) {
+        AppGUI gui = appTemplate.getGUI();
+        gui.runFileOperation(appTemplate.getFileComponent().prepareSave(appTemplate.getDataComponent(),
+                                                                        Paths.get(selectedFile.getAbsolutePath())), () -> {
+            currentWorkFile = selectedFile;
+            saved.set(true);
 
-        currentWorkFile = selectedFile;
-        saved.set(true);
+            AppMessageDialogSingleton dialog = AppMessageDialogSingleton.getSingleton();
+            PropertyManager           props  = PropertyManager.getManager();
+            dialog.show(props.getPropertyValue(SAVE_COMPLETED_TITLE), props.getPropertyValue(SAVE_COMPLETED_MESSAGE));
+            if (then != null)
+                then.run();
+        }, error -> showSaveError(), gui.getNewButton(), gui.getSaveButton(), gui.getLoadButton(), gui.getExitButton());
+    }
 
+    private void showSaveError() {
         AppMessageDialogSingleton dialog = AppMessageDialogSingleton.getSingleton();
         PropertyManager           props  = PropertyManager.getManager();
-        dialog.show(props.getPropertyValue(SAVE_COMPLETED_TITLE), props.getPropertyValue(SAVE_COMPLETED_MESSAGE));
+        dialog.show(props.getPropertyValue(SAVE_ERROR_TITLE), props.getPropertyValue(SAVE_ERROR_MESSAGE));
     }
 
     /** This method will exit the application. If work is unsaved, it will first prompt the user. */
     public void handleExitRequest() {
-        try {
-            boolean continueToExit = true;
-            if (!saved.getValue())
-                continueToExit = promptToSave();
-            if (continueToExit)
-                System.exit(0);
-        } catch (IOException ioe) {
-            AppMessageDialogSingleton dialog = AppMessageDialogSingleton.getSingleton();
-            PropertyManager           props  = PropertyManager.getManager();
-            dialog.show(props.getPropertyValue(SAVE_ERROR_TITLE), props.getPropertyValue(SAVE_ERROR_MESSAGE));
-        }
+        if (!saved.getValue())
+            promptToSave(() -> System.exit(0));
+        else
+            System.exit(0);
     }
 
     /**
@@ -150,10 +225,11 @@ public class AppFileController implements FileController {
      * <li>{@code cancel}, to indicate that the user does not want to continue with the action, but also does not want
      * to save their work at this point.</li>
      * </ol>
+     * Since the work is saved in the background, the action only goes on once the work has been saved.
      *
-     * @return {@code false} if the user presses the <i>cancel</i>, and {@code true} otherwise.
+     * @param proceed The action, which goes on unless the user presses <i>cancel</i>.
      */
-    private boolean promptToSave() throws IOException {
+    private void promptToSave(Runnable proceed) {
         PropertyManager            propertyManager   = PropertyManager.getManager();
         YesNoCancelDialogSingleton yesNoCancelDialog = YesNoCancelDialogSingleton.getSingleton();
 
@@ -161,30 +237,13 @@ public class AppFileController implements FileController {
                 propertyManager.getPropertyValue(SAVE_UNSAVED_WORK_MESSAGE));
 
         if (yesNoCancelDialog.getSelection().equals(YesNoCancelDialogSingleton.YES)) {
-            if (currentWorkFile != null)
-                saveWork(currentWorkFile);
-            else {
-                FileChooser filechooser = new FileChooser();
-                URL         workDirURL  = AppTemplate.class.getClassLoader().getResource(APP_WORKDIR_PATH.getParameter());
-                if (workDirURL == null)
-                    throw new FileNotFoundException("Work folder not found under resources.");
-
-                File initialDir = new File(workDirURL.getFile());
-                filechooser.setInitialDirectory(initialDir);
-                filechooser.setTitle(propertyManager.getPropertyValue(SAVE_WORK_TITLE));
-
-                String description = propertyManager.getPropertyValue(WORK_FILE_EXT_DESC);
-                String extension   = propertyManager.getPropertyValue(WORK_FILE_EXT);
-                ExtensionFilter extFilter = new ExtensionFilter(String.format("%s (*.%s)", description, extension),
-                        String.format("*.%s", extension));
-                filechooser.getExtensionFilters().add(extFilter);
-                File selectedFile = filechooser.showSaveDialog(appTemplate.getGUI().getWindow());
-                if (selectedFile != null)
-                    saveWork(selectedFile);
+            try {
+                saveWork(proceed);
+            } catch (IOException ioe) {
+                showSaveError();
             }
-        }
-
-        return !yesNoCancelDialog.getSelection().equals(YesNoCancelDialogSingleton.CANCEL);
+        } else if (!yesNoCancelDialog.getSelection().equals(YesNoCancelDialogSingleton.CANCEL))
+            proceed.run();
     }
 
 }
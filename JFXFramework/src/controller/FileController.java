@@ -3,6 +3,11 @@ package controller;
 import java.io.IOException;
 
 /**
+ * The responses to the file controls of an application. Each response is called on the JavaFX application thread, and
+ * should return as soon as it has started any file operation, which is then performed in the background (see
+ * {@link ui.AppGUI#runFileOperation(java.util.concurrent.Callable, java.util.function.Consumer,
+ * java.util.function.Consumer, javafx.scene.control.Button...)}).
+ *
  * @author Ritwik Banerjee
  */
 public interface FileController {
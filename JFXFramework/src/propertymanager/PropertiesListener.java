@@ -0,0 +1,27 @@
+package propertymanager;
+
+/**
+ * Something to be told whenever the {@link PropertyManager} publishes properties reloaded from their files.
+ */
+@FunctionalInterface
+public interface PropertiesListener {
+
+    /**
+     * Called once a reloaded snapshot has been published. This is not necessarily called on the JavaFX application
+     * thread, so a listener that updates any part of the user interface must hand that work over to it.
+     *
+     * @param properties The properties now in effect.
+     */
+    void propertiesReloaded(PropertySnapshot properties);
+
+    /**
+     * The registration of a listener with the {@link PropertyManager}, through which it is removed again, e.g., when
+     * the part of the user interface that it updates goes away.
+     */
+    @FunctionalInterface
+    interface Registration {
+
+        /** Stops telling the listener about reloaded properties. Removing a listener more than once is harmless. */
+        void remove();
+    }
+}
@@ -0,0 +1,267 @@
+package propertymanager;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A cache of the properties read from each properties file, kept in a compact binary form. Each snapshot is named
+ * after the location of the properties file and a hash of the contents of both the file and its schema, so it is only
+ * ever used for as long as neither of them changes, and applications whose properties files share a name keep
+ * snapshots of their own. Until then, the properties file need not be validated and parsed again.
+ * <p>
+ * Since a snapshot is trusted without being validated, the cache is meant to live in a directory of the user's own:
+ * the directory is created readable and writable by its owner alone, and is not used at all if anyone else could write
+ * to it. Every snapshot is also signed with a key that is kept in that directory, and one that does not bear a valid
+ * signature is ignored, and replaced, as if there were none.
+ */
+final class PropertiesSnapshotCache {
+
+    private static final int    SNAPSHOT_MAGIC     = 0x50525032; // "PRP2"
+    private static final String SNAPSHOT_EXTENSION = ".snapshot";
+    private static final String KEY_FILE           = "snapshot.key";
+    private static final String HASH_ALGORITHM     = "SHA-256";
+    private static final String MAC_ALGORITHM      = "HmacSHA256";
+    private static final int    KEY_LENGTH         = 32;
+
+    private static final Set<PosixFilePermission> OWNER_ONLY = EnumSet.of(PosixFilePermission.OWNER_READ,
+                                                                          PosixFilePermission.OWNER_WRITE,
+                                                                          PosixFilePermission.OWNER_EXECUTE);
+    private static final Set<PosixFilePermission> OWNER_FILE = EnumSet.of(PosixFilePermission.OWNER_READ,
+                                                                          PosixFilePermission.OWNER_WRITE);
+
+    private final Path   directory;
+    private       byte[] key; // the key with which snapshots are signed, once the directory has been found safe to use
+
+    PropertiesSnapshotCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return the location of the snapshot for the current contents of the given files, or {@code null} if they
+     * cannot be read (in which case loading the properties will fail and report the problem anyway), or if there is no
+     * safe place to keep the snapshot.
+     */
+    Path locate(String xmlfilename, URL xmlFileResource, URL schemaFileResource) {
+        if (xmlFileResource == null || schemaFileResource == null)
+            return null;
+        try {
+            if (key() == null)
+                return null;
+            MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
+            digest.update(readFully(xmlFileResource));
+            digest.update((byte) 0);
+            digest.update(readFully(schemaFileResource));
+            StringBuilder name = new StringBuilder(prefix(xmlfilename, xmlFileResource));
+            for (byte b : digest.digest())
+                appendHex(name, b);
+            return directory.resolve(name.append(SNAPSHOT_EXTENSION).toString());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
+
+    /** @return the start of the names of the snapshots of a properties file, which tells apart files of the same name. */
+    private static String prefix(String xmlfilename, URL xmlFileResource) throws NoSuchAlgorithmException {
+        byte[]        location = MessageDigest.getInstance(HASH_ALGORITHM)
+                                              .digest(xmlFileResource.toExternalForm().getBytes(StandardCharsets.UTF_8));
+        StringBuilder prefix   = new StringBuilder(xmlfilename).append('-');
+        for (int i = 0; i < 8; i++)
+            appendHex(prefix, location[i]);
+        return prefix.append('-').toString();
+    }
+
+    private static void appendHex(StringBuilder hex, byte b) {
+        hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    }
+
+    /**
+     * Reads a snapshot into the given maps, once its signature has been checked.
+     *
+     * @return {@code true} if the snapshot was read, and {@code false} if there is no usable snapshot, in which case
+     * the maps are left empty.
+     */
+    boolean read(Path snapshot, Map<String, String> properties, Map<String, List<String>> propertyOptions) {
+        if (!Files.isRegularFile(snapshot))
+            return false;
+        try {
+            byte[] content = Files.readAllBytes(snapshot);
+            if (content.length < 4 + KEY_LENGTH)
+                return false;
+            byte[] body      = Arrays.copyOf(content, content.length - KEY_LENGTH);
+            byte[] signature = Arrays.copyOfRange(content, content.length - KEY_LENGTH, content.length);
+            if (!MessageDigest.isEqual(signature, sign(body)))
+                return false;
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+            if (in.readInt() != SNAPSHOT_MAGIC)
+                return false;
+            for (int i = in.readInt(); i > 0; i--)
+                properties.put(readString(in), readString(in));
+            for (int i = in.readInt(); i > 0; i--) {
+                String       name    = readString(in);
+                int          count   = in.readInt();
+                List<String> options = new ArrayList<>(count);
+                for (int j = 0; j < count; j++)
+                    options.add(readString(in));
+                propertyOptions.put(name, options);
+            }
+            return true;
+        } catch (IOException | GeneralSecurityException e) {
+            properties.clear();
+            propertyOptions.clear();
+            return false;
+        }
+    }
+
+    /**
+     * Writes a signed snapshot of the properties read from a properties file, replacing any older snapshot of that
+     * file. Since this is only a cache, any failure to do so is ignored.
+     */
+    void write(Path snapshot, String xmlfilename, URL xmlFileResource, Map<String, String> properties,
+               Map<String, List<String>> propertyOptions) {
+        try {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(body)) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(properties.size());
+                for (Map.Entry<String, String> property : properties.entrySet()) {
+                    writeString(out, property.getKey());
+                    writeString(out, property.getValue());
+                }
+                out.writeInt(propertyOptions.size());
+                for (Map.Entry<String, List<String>> options : propertyOptions.entrySet()) {
+                    writeString(out, options.getKey());
+                    out.writeInt(options.getValue().size());
+                    for (String option : options.getValue())
+                        writeString(out, option);
+                }
+            }
+            byte[] signature = sign(body.toByteArray());
+            body.write(signature);
+
+            Path temporary = Files.createTempFile(directory, xmlfilename, null); // readable by its owner alone
+            Files.write(temporary, body.toByteArray());
+            Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            String prefix = prefix(xmlfilename, xmlFileResource);
+            try (DirectoryStream<Path> stale = Files.newDirectoryStream(directory, prefix + "*" + SNAPSHOT_EXTENSION)) {
+                for (Path older : stale) {
+                    if (!older.equals(snapshot))
+                        Files.deleteIfExists(older);
+                }
+            }
+        } catch (IOException | GeneralSecurityException e) {
+            // the properties were loaded regardless, and the snapshot will be written again on the next run
+        }
+    }
+
+    private byte[] sign(byte[] body) throws IOException, GeneralSecurityException {
+        byte[] key = key();
+        if (key == null)
+            throw new IOException("There is no safe place for the snapshots in " + directory);
+        Mac mac = Mac.getInstance(MAC_ALGORITHM);
+        mac.init(new SecretKeySpec(key, MAC_ALGORITHM));
+        return mac.doFinal(body);
+    }
+
+    /**
+     * @return the key with which snapshots are signed, which is made the first time the cache is used, or {@code null}
+     * if the directory is not safe to keep snapshots in.
+     */
+    private synchronized byte[] key() throws IOException {
+        if (key != null)
+            return key;
+        if (!secureDirectory())
+            return null;
+        Path keyFile = directory.resolve(KEY_FILE);
+        if (!Files.isRegularFile(keyFile)) {
+            byte[] created = new byte[KEY_LENGTH];
+            new SecureRandom().nextBytes(created);
+            try {
+                if (directory.getFileSystem().supportedFileAttributeViews().contains("posix"))
+                    Files.createFile(keyFile, PosixFilePermissions.asFileAttribute(OWNER_FILE));
+                else
+                    Files.createFile(keyFile);
+                Files.write(keyFile, created);
+            } catch (FileAlreadyExistsException e) {
+                // another run made the key in the meantime, which is the one to use
+            }
+        }
+        byte[] read = Files.readAllBytes(keyFile);
+        if (read.length != KEY_LENGTH)
+            return null;
+        key = read;
+        return key;
+    }
+
+    /**
+     * Creates the directory, if need be, so that only its owner may read or write it, and checks that an existing one
+     * belongs to the user and that nobody else may write to it. Where the file system has no notion of POSIX
+     * permissions, the directory is trusted as long as it lies in the user's own space, which it does by default.
+     *
+     * @return whether the directory is safe to keep snapshots in.
+     */
+    private boolean secureDirectory() throws IOException {
+        boolean posix = directory.getFileSystem().supportedFileAttributeViews().contains("posix");
+        if (!Files.isDirectory(directory)) {
+            if (posix) {
+                FileAttribute<Set<PosixFilePermission>> ownerOnly = PosixFilePermissions.asFileAttribute(OWNER_ONLY);
+                Files.createDirectories(directory, ownerOnly);
+            } else
+                Files.createDirectories(directory);
+        }
+        if (!posix)
+            return true;
+        PosixFileAttributeView   view        = Files.getFileAttributeView(directory, PosixFileAttributeView.class);
+        Set<PosixFilePermission> permissions = view.readAttributes().permissions();
+        return view.getOwner().getName().equals(System.getProperty("user.name"))
+               && !permissions.contains(PosixFilePermission.GROUP_WRITE)
+               && !permissions.contains(PosixFilePermission.OTHERS_WRITE);
+    }
+
+    private static byte[] readFully(URL resource) throws IOException {
+        try (InputStream in = resource.openStream()) {
+            ByteArrayOutputStream bytes  = new ByteArrayOutputStream();
+            byte[]                buffer = new byte[8192];
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer))
+                bytes.write(buffer, 0, read);
+            return bytes.toByteArray();
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        out.writeBoolean(string != null);
+        if (string != null)
+            out.writeUTF(string);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,85 @@
+package propertymanager;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches a set of files for changes on a daemon thread, and runs a given action after each burst of changes. Editors
+ * often save a file in several steps (truncate, write, rename), so events are collected until the files have been
+ * quiet for {@link #SETTLE_MILLIS} before the action runs, once.
+ */
+final class PropertiesWatcher {
+
+    private static final long SETTLE_MILLIS = 200;
+
+    private final WatchService watchService;
+    private final Set<Path>    files;
+    private final Runnable     onChange;
+    private final Thread       thread;
+
+    PropertiesWatcher(Collection<Path> files, Runnable onChange) throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.files = new HashSet<>(files);
+        this.onChange = onChange;
+
+        Set<Path> directories = new HashSet<>();
+        for (Path file : this.files)
+            directories.add(file.getParent());
+        try {
+            for (Path directory : directories)
+                directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            watchService.close();
+            throw e;
+        }
+
+        thread = new Thread(this::watch, "properties-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void close() {
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+            // the watcher thread stops either way
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                boolean changed = drain(watchService.take());
+                WatchKey key;
+                while ((key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null)
+                    changed |= drain(key);
+                if (changed)
+                    onChange.run();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // stop watching
+        }
+    }
+
+    /** @return {@code true} if any of the events of the given key concern one of the watched files. */
+    private boolean drain(WatchKey key) {
+        boolean changed   = false;
+        Path    directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || files.contains(directory.resolve((Path) event.context())))
+                changed = true;
+        }
+        key.reset();
+        return changed;
+    }
+}
@@ -3,12 +3,30 @@ package propertymanager;
 import org.w3c.dom.Document;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
+import org.xml.sax.SAXException;
 import xmlutils.InvalidXMLFileFormatException;
 import xmlutils.XMLUtilities;
 
+import javax.xml.stream.StreamFilter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.stax.StAXSource;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * @author Ritwik Banerjee
@@ -17,10 +35,29 @@ public class PropertyManager {
 
     private static final XMLUtilities xmlUtilities = new XMLUtilities();
 
-    private static PropertyManager singleton = null;
+    /**
+     * The ways in which a properties file can be loaded. Both validate the file against its schema, but {@code STAX}
+     * reads the properties while it validates the file, in a single forward pass over it, without building a DOM tree.
+     */
+    public enum PropertiesLoader {
+        DOM,
+        STAX
+    }
+
+    // All the loaded properties are published as a single immutable snapshot, which is replaced (never modified) with
+    // every change, so that readers on any thread always see a consistent set of properties without locking.
+    private volatile PropertySnapshot        snapshot      = PropertySnapshot.EMPTY;
+    private final    Set<Class<?>>           propertyTypes = new CopyOnWriteArraySet<>();
+    private volatile PropertiesLoader        loader        = PropertiesLoader.STAX;
+    private volatile PropertiesSnapshotCache snapshotCache = new PropertiesSnapshotCache(DEFAULT_SNAPSHOT_DIRECTORY);
 
-    private Map<String, String>       properties;
-    private Map<String, List<String>> propertyOptions;
+    // The properties files loaded so far, by name and in the order in which they were loaded, so that they can be
+    // reloaded, and whoever wants to know when that happens.
+    private final Map<String, PropertiesSource> sources   = new LinkedHashMap<>();
+    private final List<PropertiesListener>      listeners = new CopyOnWriteArrayList<>();
+    private       PropertiesWatcher             watcher;
+    private       int                           sourcesVersion; // bumped whenever a file is published by a load
+    private final Object                        reloadLock = new Object(); // so that reloads publish one at a time
 
     // Constants critical to the loading of elements and their attributes from the XML files
     public static final String PROPERTY_ELEMENT              = "property";
@@ -34,62 +71,282 @@ public class PropertyManager {
     // Location of the properties resources, relative to the root resource folder for the application
     public static final String PROPERTIES_RESOURCE_RELATIVE_PATH = "properties";
 
-    private PropertyManager() {
-        properties = new HashMap<>();
-        propertyOptions = new HashMap<>();
+    // Where the binary snapshots of the loaded properties files are kept, unless told otherwise, which is a directory of
+    // the user's own, since the snapshots are trusted without being validated
+    public static final Path DEFAULT_SNAPSHOT_DIRECTORY = Paths.get(System.getProperty("user.home"), ".jfxframework", "properties");
+
+    private static final Logger LOGGER = Logger.getLogger(PropertyManager.class.getName());
+
+    private PropertyManager() { }
+
+    private static final class SingletonHolder {
+        private static final PropertyManager singleton = new PropertyManager();
     }
 
     public static PropertyManager getManager() {
-        if (singleton == null)
-            singleton = new PropertyManager();
-        return singleton;
+        return SingletonHolder.singleton;
+    }
+
+    /**
+     * Registers an enum type whose constants name properties, such as {@code AppPropertyType}. The values of all its
+     * constants are then resolved into an array whenever properties are loaded, so that looking them up later costs
+     * a single array access. The constants of unregistered enum types are looked up by name instead.
+     *
+     * @param propertyType The enum type.
+     */
+    public synchronized void registerPropertyType(Class<? extends Enum<?>> propertyType) {
+        if (propertyTypes.add(propertyType))
+            snapshot = new PropertySnapshot(snapshot.getProperties(), snapshot.getPropertyOptions(), propertyTypes);
+    }
+
+    /** @return the properties as they are now, which will not change even if more properties are loaded later. */
+    public PropertySnapshot getSnapshot() {
+        return snapshot;
     }
 
-    public void addProperty(String property, String value) {
-        properties.put(property, value);
+    public synchronized void addProperty(String property, String value) {
+        Map<String, String> updated = new HashMap<>(snapshot.getProperties());
+        updated.put(property, value);
+        snapshot = new PropertySnapshot(updated, snapshot.getPropertyOptions(), propertyTypes);
     }
 
     public String getPropertyValue(String property) {
-        return properties.get(property);
+        return snapshot.getPropertyValue(property);
     }
 
     public String getPropertyValue(Object property) {
-        return properties.get(property.toString());
+        return property instanceof Enum<?> ? snapshot.getPropertyValue((Enum<?>) property)
+                                           : snapshot.getPropertyValue(property.toString());
     }
 
-    public void addPropertyOption(String property, String option) {
-        if (properties.get(property) == null)
+    public synchronized void addPropertyOption(String property, String option) {
+        if (snapshot.getPropertyValue(property) == null)
             throw new NoSuchElementException(String.format("Property \"%s\" does not exist.", property));
-        List<String> propertyoptionslist = propertyOptions.get(property);
-        if (propertyoptionslist == null)
-            propertyoptionslist = new ArrayList<>();
+        Map<String, List<String>> updated             = new HashMap<>(snapshot.getPropertyOptions());
+        List<String>              propertyoptionslist = updated.get(property);
+        propertyoptionslist = propertyoptionslist == null ? new ArrayList<>() : new ArrayList<>(propertyoptionslist);
         propertyoptionslist.add(option);
-        propertyOptions.put(property, propertyoptionslist);
+        updated.put(property, propertyoptionslist);
+        snapshot = new PropertySnapshot(snapshot.getProperties(), updated, propertyTypes);
     }
 
     public List<String> getPropertyOptions(String property) {
-        if (properties.get(property) == null)
+        PropertySnapshot current = snapshot;
+        if (current.getPropertyValue(property) == null)
             throw new NoSuchElementException(String.format("Property \"%s\" does not exist.", property));
-        return propertyOptions.get(property);
+        return current.getPropertyOptions(property);
     }
 
     public boolean hasProperty(Object property) {
-        return properties.get(property.toString()) != null;
+        return getPropertyValue(property) != null;
     }
 
+    public PropertiesLoader getPropertiesLoader() {
+        return loader;
+    }
+
+    public void setPropertiesLoader(PropertiesLoader loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Sets where the binary snapshots of the loaded properties files are kept.
+     *
+     * @param directory The directory in which to keep the snapshots, or {@code null} to always validate and parse the
+     *                  properties files in full.
+     */
+    public void setSnapshotDirectory(Path directory) {
+        this.snapshotCache = directory == null ? null : new PropertiesSnapshotCache(directory);
+    }
+
+    /**
+     * Loads the properties from the given file. If the file and its schema are unchanged since they were last loaded,
+     * the properties are read from the binary snapshot taken then, and the file is neither validated nor parsed again.
+     */
     public void loadProperties(Class klass, String xmlfilename, String schemafilename) throws InvalidXMLFileFormatException {
-        URL             xmlFileResource    = klass.getClassLoader().getResource(PROPERTIES_RESOURCE_RELATIVE_PATH + File.separator + xmlfilename);
-        URL             schemaFileResource = klass.getClassLoader().getResource(PROPERTIES_RESOURCE_RELATIVE_PATH + File.separator + schemafilename);
-        Document        document           = xmlUtilities.loadXMLDocument(xmlFileResource, schemaFileResource);
-        Node            propertyListNode   = xmlUtilities.getNodeWithName(document, PROPERTY_LIST_ELEMENT);
-        ArrayList<Node> propNodes          = xmlUtilities.getChildNodesWithName(propertyListNode, PROPERTY_ELEMENT);
+        PropertiesSource          source           = new PropertiesSource(klass, xmlfilename, schemafilename);
+        Map<String, String>       loadedProperties = new LinkedHashMap<>();
+        Map<String, List<String>> loadedOptions    = new LinkedHashMap<>();
+        load(source, loadedProperties, loadedOptions);
+        publish(source, loadedProperties, loadedOptions);
+    }
+
+    /**
+     * Loads several properties files, which share the same schema, at once. The files are read concurrently, but their
+     * properties are published in the given order, so that a property defined in more than one file takes its value
+     * from the last of them, just as if the files had been loaded one after the other. On a single processor, where
+     * reading them concurrently would only add the cost of switching threads, they are read one after the other.
+     *
+     * @throws InvalidXMLFileFormatException If one of the files does not conform to the schema, in which case none of
+     *                                       the files is published.
+     */
+    public void loadProperties(Class<?> klass, List<String> xmlfilenames, String schemafilename) throws InvalidXMLFileFormatException {
+        List<PropertiesSource>          loadedSources    = new ArrayList<>(xmlfilenames.size());
+        List<Map<String, String>>       loadedProperties = new ArrayList<>(xmlfilenames.size());
+        List<Map<String, List<String>>> loadedOptions    = new ArrayList<>(xmlfilenames.size());
+        for (String xmlfilename : xmlfilenames) {
+            loadedSources.add(new PropertiesSource(klass, xmlfilename, schemafilename));
+            loadedProperties.add(new LinkedHashMap<>());
+            loadedOptions.add(new LinkedHashMap<>());
+        }
+
+        if (loadedSources.size() < 2 || Runtime.getRuntime().availableProcessors() < 2) {
+            for (int i = 0; i < loadedSources.size(); i++)
+                load(loadedSources.get(i), loadedProperties.get(i), loadedOptions.get(i));
+        } else {
+            CompletableFuture<?>[] loads = new CompletableFuture<?>[loadedSources.size()];
+            for (int i = 0; i < loads.length; i++) {
+                PropertiesSource          source     = loadedSources.get(i);
+                Map<String, String>       properties = loadedProperties.get(i);
+                Map<String, List<String>> options    = loadedOptions.get(i);
+                loads[i] = CompletableFuture.runAsync(() -> {
+                    try {
+                        load(source, properties, options);
+                    } catch (InvalidXMLFileFormatException e) {
+                        throw new CompletionException(e);
+                    }
+                });
+            }
+            try {
+                CompletableFuture.allOf(loads).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof InvalidXMLFileFormatException)
+                    throw (InvalidXMLFileFormatException) e.getCause();
+                throw e;
+            }
+        }
+
+        for (int i = 0; i < loadedSources.size(); i++)
+            publish(loadedSources.get(i), loadedProperties.get(i), loadedOptions.get(i));
+    }
+
+    /**
+     * Loads every properties file loaded so far once again, and publishes what was read as a single new snapshot,
+     * which replaces the current one. Properties added through {@link #addProperty(String, String)} are not kept. If
+     * any of the files is no longer valid, nothing is published and the current properties stay in effect.
+     *
+     * @throws InvalidXMLFileFormatException If one of the files does not conform to its schema.
+     */
+    public void reloadProperties() throws InvalidXMLFileFormatException {
+        PropertySnapshot reloaded;
+        synchronized (reloadLock) {
+            while (true) {
+                List<PropertiesSource> reloadedSources;
+                int                    version;
+                synchronized (this) {
+                    reloadedSources = new ArrayList<>(sources.values());
+                    version = sourcesVersion;
+                }
+                Map<String, String>       reloadedProperties = new LinkedHashMap<>();
+                Map<String, List<String>> reloadedOptions    = new LinkedHashMap<>();
+                for (PropertiesSource source : reloadedSources)
+                    load(source, reloadedProperties, reloadedOptions);
+
+                reloaded = new PropertySnapshot(reloadedProperties, reloadedOptions, propertyTypes);
+                synchronized (this) {
+                    // a file loaded in the meantime would be lost if this were published, so reload it along with the rest
+                    if (version == sourcesVersion) {
+                        snapshot = reloaded;
+                        break;
+                    }
+                }
+            }
+        }
+        for (PropertiesListener listener : listeners)
+            listener.propertiesReloaded(reloaded);
+    }
+
+    /**
+     * Adds a listener to be told whenever the properties are reloaded.
+     *
+     * @param listener The listener.
+     * @return the registration of the listener, through which it is to be removed once it is no longer needed, so that
+     * it does not keep whatever it updates alive, nor keep updating it.
+     */
+    public PropertiesListener.Registration addPropertiesListener(PropertiesListener listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    /**
+     * Starts watching the properties files loaded so far, and reloads all of them (see {@link #reloadProperties()})
+     * whenever any of them changes. Only files that sit directly on the file system can be watched; those inside an
+     * archive are skipped. Files loaded after this call are not watched unless this is called again.
+     * <p>
+     * The files watched are the ones the properties are loaded from, i.e., those found on the class path. When running
+     * from an IDE or a build directory, these are the copies that the build makes of the resources (e.g., under
+     * {@code out/}), not the source files, so it is the copies that are to be edited, or the resources rebuilt, for the
+     * changes to be picked up.
+     *
+     * @throws IOException If the files cannot be watched.
+     */
+    public synchronized void watchProperties() throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (PropertiesSource source : sources.values()) {
+            Path file = source.toPath();
+            if (file != null)
+                files.add(file);
+        }
+        stopWatchingProperties();
+        if (!files.isEmpty())
+            watcher = new PropertiesWatcher(files, () -> {
+                try {
+                    reloadProperties();
+                } catch (InvalidXMLFileFormatException e) {
+                    // most likely a file caught halfway through being edited; keep the properties as they are
+                    LOGGER.log(Level.WARNING, "Unable to reload the properties; the current ones stay in effect", e);
+                }
+            });
+    }
+
+    public synchronized void stopWatchingProperties() {
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
+        }
+    }
+
+    /**
+     * Reads the properties from the given file into the given maps. If the file and its schema are unchanged since
+     * they were last loaded, they are read from the binary snapshot taken then.
+     */
+    private void load(PropertiesSource source, Map<String, String> loadedProperties,
+                      Map<String, List<String>> loadedOptions) throws InvalidXMLFileFormatException {
+        PropertiesSnapshotCache cache    = snapshotCache;
+        Path                    snapshot = cache == null ? null : cache.locate(source.xmlfilename, source.xmlFileResource,
+                                                                              source.schemaFileResource);
+
+        if (snapshot == null || !cache.read(snapshot, loadedProperties, loadedOptions)) {
+            if (loader == PropertiesLoader.STAX)
+                loadPropertiesFromStream(source.xmlFileResource, source.schemaFileResource, loadedProperties, loadedOptions);
+            else
+                loadPropertiesFromDocument(source.xmlFileResource, source.schemaFileResource, loadedProperties, loadedOptions);
+            if (snapshot != null)
+                cache.write(snapshot, source.xmlfilename, source.xmlFileResource, loadedProperties, loadedOptions);
+        }
+    }
+
+    /** Merges newly loaded properties into the current ones, and publishes the result as the new snapshot. */
+    private synchronized void publish(PropertiesSource source, Map<String, String> loadedProperties,
+                                      Map<String, List<String>> loadedOptions) {
+        sources.put(source.xmlfilename, source);
+        sourcesVersion++;
+        Map<String, String>       mergedProperties = new HashMap<>(snapshot.getProperties());
+        Map<String, List<String>> mergedOptions    = new HashMap<>(snapshot.getPropertyOptions());
+        mergedProperties.putAll(loadedProperties);
+        mergedOptions.putAll(loadedOptions);
+        snapshot = new PropertySnapshot(mergedProperties, mergedOptions, propertyTypes);
+    }
+
+    private static void loadPropertiesFromDocument(URL xmlFileResource, URL schemaFileResource, Map<String, String> properties,
+                                                   Map<String, List<String>> propertyOptions) throws InvalidXMLFileFormatException {
+        Document        document         = xmlUtilities.loadXMLDocument(xmlFileResource, schemaFileResource);
+        Node            propertyListNode = xmlUtilities.getNodeWithName(document, PROPERTY_LIST_ELEMENT);
+        ArrayList<Node> propNodes        = xmlUtilities.getChildNodesWithName(propertyListNode, PROPERTY_ELEMENT);
         for (Node n : propNodes) {
             NamedNodeMap attributes = n.getAttributes();
-            for (int i = 0; i < attributes.getLength(); i++) {
-                String attName  = attributes.getNamedItem(NAME_ATTRIBUTE).getTextContent();
-                String attValue = attributes.getNamedItem(VALUE_ATTRIBUTE).getTextContent();
-                properties.put(attName, attValue);
-            }
+            properties.put(attributes.getNamedItem(NAME_ATTRIBUTE).getTextContent(),
+                           attributes.getNamedItem(VALUE_ATTRIBUTE).getTextContent());
         }
 
         // AND THE PROPERTIES FROM OPTION LISTS
@@ -109,4 +366,117 @@ public class PropertyManager {
             }
         }
     }
+
+    /**
+     * Validates the properties file against its schema, and reads all of its properties and property options as it
+     * goes, in a single forward pass over the file, without building a DOM tree. The validator pulls the file through
+     * a filtered StAX reader, and the filter picks up the properties from each event the validator reads.
+     */
+    private static void loadPropertiesFromStream(URL xmlFileResource, URL schemaFileResource, Map<String, String> properties,
+                                                 Map<String, List<String>> propertyOptions) throws InvalidXMLFileFormatException {
+        try (InputStream in = xmlFileResource.openStream()) {
+            XMLInputFactory xmlInputFactory = StreamingParsers.xmlInputFactory.get();
+            XMLStreamReader reader          = xmlInputFactory.createXMLStreamReader(xmlFileResource.toExternalForm(), in);
+            try {
+                PropertiesCollector collector = new PropertiesCollector(properties, propertyOptions);
+                xmlUtilities.validate(new StAXSource(xmlInputFactory.createFilteredReader(reader, collector)), schemaFileResource);
+            } finally {
+                reader.close();
+            }
+        } catch (SAXException e) {
+            throw new InvalidXMLFileFormatException(xmlFileResource.getFile(), schemaFileResource.getFile());
+        } catch (XMLStreamException | IOException e) {
+            throw new InvalidXMLFileFormatException(xmlFileResource.getFile());
+        }
+    }
+
+    /** Picks up the properties and property options of a properties file from the events of a StAX reader. */
+    private static final class PropertiesCollector implements StreamFilter {
+        private final Map<String, String>       properties;
+        private final Map<String, List<String>> propertyOptions;
+        private       List<String>              options; // the options of the property being read, if any
+        private       StringBuilder             option;  // the text of the option being read, if any
+
+        private PropertiesCollector(Map<String, String> properties, Map<String, List<String>> propertyOptions) {
+            this.properties = properties;
+            this.propertyOptions = propertyOptions;
+        }
+
+        @Override
+        public boolean accept(XMLStreamReader reader) {
+            switch (reader.getEventType()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    switch (reader.getLocalName()) {
+                        case PROPERTY_ELEMENT:
+                            properties.put(reader.getAttributeValue(null, NAME_ATTRIBUTE),
+                                           reader.getAttributeValue(null, VALUE_ATTRIBUTE));
+                            break;
+                        case PROPERTY_OPTIONS_ELEMENT:
+                            options = new ArrayList<>();
+                            propertyOptions.put(reader.getAttributeValue(null, NAME_ATTRIBUTE), options);
+                            break;
+                        case OPTION_ELEMENT:
+                            option = new StringBuilder();
+                            break;
+                        default:
+                            break;
+                    }
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if (option != null)
+                        option.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    if (option != null && OPTION_ELEMENT.equals(reader.getLocalName())) {
+                        if (options != null)
+                            options.add(option.toString());
+                        option = null;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            return true; // the validator sees every event
+        }
+    }
+
+    /** A properties file that has been loaded, along with its schema. */
+    private static final class PropertiesSource {
+        private final String xmlfilename;
+        private final URL    xmlFileResource;
+        private final URL    schemaFileResource;
+
+        private PropertiesSource(Class<?> klass, String xmlfilename, String schemafilename) {
+            this.xmlfilename = xmlfilename;
+            this.xmlFileResource = klass.getClassLoader().getResource(PROPERTIES_RESOURCE_RELATIVE_PATH + File.separator + xmlfilename);
+            this.schemaFileResource = klass.getClassLoader().getResource(PROPERTIES_RESOURCE_RELATIVE_PATH + File.separator + schemafilename);
+        }
+
+        /** @return the properties file on the file system, or {@code null} if it is not a plain file (e.g., in a JAR). */
+        private Path toPath() {
+            if (xmlFileResource == null || !"file".equals(xmlFileResource.getProtocol()))
+                return null;
+            try {
+                return Paths.get(xmlFileResource.toURI());
+            } catch (URISyntaxException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Holds the StAX factories, so that they are only set up if a properties file is actually parsed with them. A
+     * factory is not guaranteed to be thread-safe, and properties files may be loaded concurrently, so there is one
+     * factory per thread.
+     */
+    private static final class StreamingParsers {
+        private static final ThreadLocal<XMLInputFactory> xmlInputFactory = ThreadLocal.withInitial(() -> {
+            XMLInputFactory factory = XMLInputFactory.newInstance();
+            factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            return factory;
+        });
+    }
 }
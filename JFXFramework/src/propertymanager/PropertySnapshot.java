@@ -0,0 +1,70 @@
+package propertymanager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable view of all the properties and property options loaded at some point in time. Once published by the
+ * {@link PropertyManager}, a snapshot may be read from any thread without any locking.
+ * <p>
+ * Properties named by the constants of a registered enum type (see {@link PropertyManager#registerPropertyType(Class)})
+ * are looked up through an array indexed by the ordinal of the constant, which is filled in when the snapshot is made,
+ * so these lookups neither hash nor allocate. The constants of any other enum type are looked up by name, like any
+ * other property.
+ */
+public final class PropertySnapshot {
+
+    static final PropertySnapshot EMPTY = new PropertySnapshot(Collections.emptyMap(), Collections.emptyMap(),
+                                                               Collections.emptySet());
+
+    private final Map<String, String>       properties;
+    private final Map<String, List<String>> propertyOptions;
+    private final Class<?>[]                types; // the registered enum types, in the order of registration
+    private final String[][]                slots; // the values of the constants of each of those, by ordinal
+
+    PropertySnapshot(Map<String, String> properties, Map<String, List<String>> propertyOptions,
+                     Collection<Class<?>> propertyTypes) {
+        Map<String, List<String>> options = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : propertyOptions.entrySet())
+            options.put(entry.getKey(), Collections.unmodifiableList(new ArrayList<>(entry.getValue())));
+        this.properties = Collections.unmodifiableMap(new HashMap<>(properties));
+        this.propertyOptions = Collections.unmodifiableMap(options);
+        this.types = propertyTypes.toArray(new Class<?>[0]);
+        this.slots = new String[types.length][];
+        for (int i = 0; i < types.length; i++) {
+            Object[] constants = types[i].getEnumConstants();
+            slots[i] = new String[constants.length];
+            for (int j = 0; j < constants.length; j++)
+                slots[i][j] = this.properties.get(constants[j].toString());
+        }
+    }
+
+    public String getPropertyValue(String property) {
+        return properties.get(property);
+    }
+
+    public String getPropertyValue(Enum<?> property) {
+        Class<?> type = property.getDeclaringClass();
+        for (int i = 0; i < types.length; i++) { // there are only ever a few types, so this beats hashing
+            if (types[i] == type)
+                return slots[i][property.ordinal()];
+        }
+        return properties.get(property.toString());
+    }
+
+    public List<String> getPropertyOptions(String property) {
+        return propertyOptions.get(property);
+    }
+
+    public Map<String, String> getProperties() {
+        return properties;
+    }
+
+    public Map<String, List<String>> getPropertyOptions() {
+        return propertyOptions;
+    }
+}
@@ -17,6 +17,9 @@ public enum AppPropertyType {
     APP_LOGO,
     APP_CSS,
     APP_PATH_CSS,
+    APP_SESSIONS,
+    PROPERTIES_HOT_RELOAD,
+    PERFORMANCE_OVERLAY,
 
     // APPLICATION ICONS
     NEW_ICON,
@@ -33,11 +36,13 @@ public enum AppPropertyType {
     // ERROR MESSAGES
     NEW_ERROR_MESSAGE,
     SAVE_ERROR_MESSAGE,
+    LOAD_ERROR_MESSAGE,
     PROPERTIES_LOAD_ERROR_MESSAGE,
 
     // ERROR TITLES
     NEW_ERROR_TITLE,
     SAVE_ERROR_TITLE,
+    LOAD_ERROR_TITLE,
     PROPERTIES_LOAD_ERROR_TITLE,
 
     // AND VERIFICATION MESSAGES AND TITLES
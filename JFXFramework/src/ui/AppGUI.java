@@ -1,32 +1,34 @@
 package ui;
 
 import apptemplate.AppTemplate;
+import components.AppFileComponent.FileOperation;
 import components.AppStyleArbiter;
 import controller.FileController;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.Tooltip;
-import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.FlowPane;
 import javafx.scene.layout.Pane;
 import javafx.stage.Stage;
+import javafx.stage.WindowEvent;
+import propertymanager.PropertiesListener;
 import propertymanager.PropertyManager;
+import propertymanager.PropertySnapshot;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.net.URISyntaxException;
-import java.net.URL;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 import static settings.AppPropertyType.*;
-import static settings.InitializationParameters.APP_IMAGEDIR_PATH;
 
 /**
  * This class provides the basic user interface for this application, including all the file controls, but it does not
@@ -50,6 +52,22 @@ public class AppGUI implements AppStyleArbiter {
     private int appWindowWidth;  // optional parameter for window width that can be set by the application
     private int appWindowHeight; // optional parameter for window height that can be set by the application
 
+    private final Map<Tooltip, String>            tooltipProperties = new LinkedHashMap<>(); // the property behind each tooltip
+    private final PropertiesListener.Registration propertiesRegistration; // keeps this GUI up to date with the properties
+
+    // File operations run one at a time, in the order in which they were started, on a single background thread. While
+    // any are in flight, the toolbar buttons they affect are disabled, whatever state the buttons would otherwise be in.
+    private static final ExecutorService fileOperationExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "file-operations");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<Button, Boolean> requestedDisable  = new HashMap<>(); // the state of each button, if nothing is in flight
+    private final Map<Button, Integer> pendingOperations = new HashMap<>(); // the number of operations in flight, per button
+    private       int                  operationsInFlight;
+    private       ProgressIndicator    progressIndicator;                   // shown in the toolbar while anything is in flight
+
     /**
      * This constructor initializes the file toolbar for use.
      *
@@ -58,11 +76,11 @@ public class AppGUI implements AppStyleArbiter {
      *                         will appear in the window bar.
      * @param app              The app within this gui is used.
      */
-    public AppGUI(Stage initPrimaryStage, String initAppTitle, AppTemplate app) throws IOException, InstantiationException {
+    public AppGUI(Stage initPrimaryStage, String initAppTitle, AppTemplate app) throws IOException {
         this(initPrimaryStage, initAppTitle, app, -1, -1);
     }
 
-    public AppGUI(Stage primaryStage, String applicationTitle, AppTemplate appTemplate, int appWindowWidth, int appWindowHeight) throws IOException, InstantiationException {
+    public AppGUI(Stage primaryStage, String applicationTitle, AppTemplate appTemplate, int appWindowWidth, int appWindowHeight) throws IOException {
         this.appWindowWidth = appWindowWidth;
         this.appWindowHeight = appWindowHeight;
         this.primaryStage = primaryStage;
@@ -71,6 +89,33 @@ public class AppGUI implements AppStyleArbiter {
         initializeToolbarHandlers(appTemplate); // set the toolbar button handlers
         initializeWindow();                     // start the app window (without the application-specific workspace)
 
+        propertiesRegistration = PropertyManager.getManager().addPropertiesListener(
+                properties -> Platform.runLater(() -> reloadProperties(properties)));
+        primaryStage.addEventHandler(WindowEvent.WINDOW_HIDDEN, e -> dispose());
+    }
+
+    /**
+     * Stops updating this GUI when the properties are reloaded, e.g., once its window has been closed, or before
+     * another GUI replaces it. This is done when the window is hidden, at the latest.
+     */
+    public void dispose() {
+        propertiesRegistration.remove();
+    }
+
+    /**
+     * Updates the window title and the tooltips of the toolbar buttons with the given properties, after they have
+     * been reloaded from their files.
+     *
+     * @param properties The reloaded properties.
+     */
+    protected void reloadProperties(PropertySnapshot properties) {
+        String title = properties.getPropertyValue(APP_TITLE);
+        if (title != null) {
+            applicationTitle = title;
+            primaryStage.setTitle(title);
+        }
+        for (Map.Entry<Tooltip, String> tooltip : tooltipProperties.entrySet())
+            tooltip.getKey().setText(properties.getPropertyValue(tooltip.getValue()));
     }
 
     public FileController getFileController() {
@@ -79,6 +124,14 @@ public class AppGUI implements AppStyleArbiter {
 
     public FlowPane getToolbarPane() { return toolbarPane; }
 
+    public Button getNewButton() { return newButton; }
+
+    public Button getSaveButton() { return saveButton; }
+
+    public Button getLoadButton() { return loadButton; }
+
+    public Button getExitButton() { return exitButton; }
+
     public BorderPane getAppPane() { return appPane; }
 
     /**
@@ -109,17 +162,8 @@ public class AppGUI implements AppStyleArbiter {
         exitButton = initializeChildButton(toolbarPane, EXIT_ICON.toString(), EXIT_TOOLTIP.toString(), false);
     }
 
-    private void initializeToolbarHandlers(AppTemplate app) throws InstantiationException {
-        try {
-            Method         getFileControllerClassMethod = app.getClass().getMethod("getFileControllerClass");
-            String         fileControllerClassName      = (String) getFileControllerClassMethod.invoke(app);
-            Class<?>       klass                        = Class.forName("controller." + fileControllerClassName);
-            Constructor<?> constructor                  = klass.getConstructor(AppTemplate.class);
-            fileController = (FileController) constructor.newInstance(app);
-        } catch (NoSuchMethodException | InvocationTargetException | IllegalAccessException | ClassNotFoundException e) {
-            e.printStackTrace();
-            System.exit(1);
-        }
+    private void initializeToolbarHandlers(AppTemplate app) {
+        fileController = app.makeFileControllerHook();
 
         newButton.setOnAction(e -> fileController.handleNewRequest());
         saveButton.setOnAction(e -> {
@@ -141,9 +185,87 @@ public class AppGUI implements AppStyleArbiter {
     }
 
     public void updateWorkspaceToolbar(boolean savable) {
-        saveButton.setDisable(!savable);
-        newButton.setDisable(false);
-        exitButton.setDisable(false);
+        setButtonDisable(saveButton, !savable);
+        setButtonDisable(newButton, false);
+        setButtonDisable(exitButton, false);
+    }
+
+    /**
+     * Sets whether a toolbar button is disabled. A button affected by a file operation in flight stays disabled until
+     * the operation is over, and then takes the state last set here.
+     */
+    public void setButtonDisable(Button button, boolean disable) {
+        requestedDisable.put(button, disable);
+        button.setDisable(disable || pendingOperations.containsKey(button));
+    }
+
+    /**
+     * Performs a file operation on a background thread, so that the window stays responsive however slow the disk is.
+     * The given toolbar buttons are disabled, and a progress indicator is shown in the toolbar, until the operation is
+     * over. Either callback is then run on the JavaFX application thread.
+     *
+     * @param operation   The work to do in the background, which must not touch the user interface.
+     * @param onSucceeded What to do with the result of the operation.
+     * @param onFailed    What to do if the operation fails.
+     * @param affected    The buttons that must not be used while the operation is in flight.
+     * @param <T>         The type of the result of the operation.
+     */
+    public <T> void runFileOperation(Callable<T> operation, Consumer<T> onSucceeded, Consumer<Throwable> onFailed,
+                                     Button... affected) {
+        Task<T> task = new Task<T>() {
+            @Override
+            protected T call() throws Exception {
+                return operation.call();
+            }
+        };
+        task.setOnSucceeded(event -> {
+            endFileOperation(affected);
+            onSucceeded.accept(task.getValue());
+        });
+        task.setOnFailed(event -> {
+            endFileOperation(affected);
+            onFailed.accept(task.getException());
+        });
+
+        startFileOperation(affected);
+        fileOperationExecutor.execute(task);
+    }
+
+    /** Like {@link #runFileOperation(Callable, Consumer, Consumer, Button...)}, for an operation without a result. */
+    public void runFileOperation(FileOperation operation, Runnable onSucceeded, Consumer<Throwable> onFailed,
+                                 Button... affected) {
+        runFileOperation(() -> {
+            operation.perform();
+            return null;
+        }, result -> onSucceeded.run(), onFailed, affected);
+    }
+
+    private void startFileOperation(Button... affected) {
+        for (Button button : affected) {
+            requestedDisable.putIfAbsent(button, button.isDisable());
+            pendingOperations.merge(button, 1, Integer::sum);
+            button.setDisable(true);
+        }
+        operationsInFlight++;
+        if (progressIndicator == null) {
+            progressIndicator = new ProgressIndicator();
+            progressIndicator.setPrefSize(18, 18);
+            toolbarPane.getChildren().add(progressIndicator);
+        }
+        progressIndicator.setVisible(true);
+        progressIndicator.setManaged(true);
+    }
+
+    private void endFileOperation(Button... affected) {
+        for (Button button : affected) {
+            if (pendingOperations.merge(button, -1, Integer::sum) == 0) {
+                pendingOperations.remove(button);
+                button.setDisable(requestedDisable.get(button));
+            }
+        }
+        boolean idle = --operationsInFlight == 0;
+        progressIndicator.setVisible(!idle);
+        progressIndicator.setManaged(!idle);
     }
 
     private void initializeWindow() throws IOException {
@@ -160,14 +282,7 @@ public class AppGUI implements AppStyleArbiter {
                 appWindowWidth,
                 appWindowHeight);
 
-        URL imgDirURL = AppTemplate.class.getClassLoader().getResource(APP_IMAGEDIR_PATH.getParameter());
-        if (imgDirURL == null)
-            throw new FileNotFoundException("Image resrouces folder does not exist.");
-        try (InputStream appLogoStream = Files.newInputStream(Paths.get(imgDirURL.toURI()).resolve(propertyManager.getPropertyValue(APP_LOGO)))) {
-            primaryStage.getIcons().add(new Image(appLogoStream));
-        } catch (URISyntaxException e) {
-            e.printStackTrace();
-        }
+        primaryStage.getIcons().add(ImageCache.getCache().getImage(propertyManager.getPropertyValue(APP_LOGO)));
 
         primaryStage.setScene(primaryScene);
         primaryStage.show();
@@ -178,7 +293,7 @@ public class AppGUI implements AppStyleArbiter {
      * an icon and tooltip and placing it into a toolbar.
      *
      * @param toolbarPane Toolbar pane into which to place this button.
-     * @param icon        Icon image file name for the button.
+     * @param icon        Icon image file name for the button, or the region of a sprite atlas (see {@link ImageCache}).
      * @param tooltip     Tooltip to appear when the user mouses over the button.
      * @param disabled    true if the button is to start off disabled, false otherwise.
      * @return A constructed, fully initialized button placed into its appropriate
@@ -187,22 +302,13 @@ public class AppGUI implements AppStyleArbiter {
     public Button initializeChildButton(Pane toolbarPane, String icon, String tooltip, boolean disabled) throws IOException {
         PropertyManager propertyManager = PropertyManager.getManager();
 
-        URL imgDirURL = AppTemplate.class.getClassLoader().getResource(APP_IMAGEDIR_PATH.getParameter());
-        if (imgDirURL == null)
-            throw new FileNotFoundException("Image resources folder does not exist.");
-
         Button button = new Button();
-        try (InputStream imgInputStream = Files.newInputStream(Paths.get(imgDirURL.toURI()).resolve(propertyManager.getPropertyValue(icon)))) {
-            Image buttonImage = new Image(imgInputStream);
-            button.setDisable(disabled);
-            button.setGraphic(new ImageView(buttonImage));
-            Tooltip buttonTooltip = new Tooltip(propertyManager.getPropertyValue(tooltip));
-            button.setTooltip(buttonTooltip);
-            toolbarPane.getChildren().add(button);
-        } catch (URISyntaxException e) {
-            e.printStackTrace();
-            System.exit(1);
-        }
+        setButtonDisable(button, disabled);
+        button.setGraphic(ImageCache.getCache().createImageView(propertyManager.getPropertyValue(icon)));
+        Tooltip buttonTooltip = new Tooltip(propertyManager.getPropertyValue(tooltip));
+        button.setTooltip(buttonTooltip);
+        tooltipProperties.put(buttonTooltip, tooltip);
+        toolbarPane.getChildren().add(button);
 
         return button;
     }
@@ -0,0 +1,81 @@
+package ui;
+
+import apptemplate.AppTemplate;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+
+import java.io.FileNotFoundException;
+import java.net.URL;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static settings.InitializationParameters.APP_IMAGEDIR_PATH;
+
+/**
+ * This class holds every image loaded from the image resources of the application, so that each image file is read
+ * and decoded only once, however many parts of the user interface show it.
+ * <p>
+ * Images are loaded from their resource URL, which works whether the resources are plain files or packed in a JAR,
+ * and are decoded on a background thread. An image returned by this cache may therefore still be loading; anything
+ * showing it simply shows nothing until it is ready.
+ * <p>
+ * Several small images, such as toolbar icons, may be packed side by side into a single image (a sprite atlas), and
+ * referred to as {@code "atlas.png#x,y,width,height"}, i.e., the name of the atlas followed by the region of it that
+ * holds the image. The atlas is then decoded once for all of them.
+ */
+public final class ImageCache {
+
+    public static final char VIEWPORT_SEPARATOR = '#';
+
+    private static final ImageCache cache = new ImageCache();
+
+    private final ConcurrentHashMap<String, Image> images = new ConcurrentHashMap<>();
+
+    private ImageCache() { }
+
+    public static ImageCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Gets an image, starting to load it if this is the first time it is asked for.
+     *
+     * @param filename The name of the image file, within the image resources folder.
+     * @return the image, which may still be loading.
+     * @throws FileNotFoundException If there is no such image.
+     */
+    public Image getImage(String filename) throws FileNotFoundException {
+        Image image = images.get(filename);
+        if (image != null)
+            return image;
+        URL imageURL = AppTemplate.class.getClassLoader().getResource(APP_IMAGEDIR_PATH.getParameter() + "/" + filename);
+        if (imageURL == null)
+            throw new FileNotFoundException(String.format("Image resource %s does not exist.", filename));
+        return images.computeIfAbsent(filename, name -> new Image(imageURL.toExternalForm(), true));
+    }
+
+    /**
+     * Creates a view of an image, which may be a whole image file or a region of a sprite atlas.
+     *
+     * @param reference The name of the image file, optionally followed by {@value #VIEWPORT_SEPARATOR} and the region
+     *                  {@code x,y,width,height} of the image to show.
+     * @return a new view of the image.
+     * @throws FileNotFoundException If there is no such image.
+     */
+    public ImageView createImageView(String reference) throws FileNotFoundException {
+        int separator = reference.indexOf(VIEWPORT_SEPARATOR);
+        if (separator < 0)
+            return new ImageView(getImage(reference));
+        ImageView imageView = new ImageView(getImage(reference.substring(0, separator)));
+        imageView.setViewport(parseViewport(reference.substring(separator + 1)));
+        return imageView;
+    }
+
+    private static Rectangle2D parseViewport(String viewport) {
+        String[] bounds = viewport.split(",");
+        if (bounds.length != 4)
+            throw new IllegalArgumentException(String.format("Invalid image region \"%s\".", viewport));
+        return new Rectangle2D(Double.parseDouble(bounds[0].trim()), Double.parseDouble(bounds[1].trim()),
+                               Double.parseDouble(bounds[2].trim()), Double.parseDouble(bounds[3].trim()));
+    }
+}
@@ -0,0 +1,167 @@
+package ui;
+
+import apptemplate.LatencyHistogram;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Measures how long the application takes to respond to input, e.g., how long it takes for a key press to show on
+ * screen. Each input is timed at three points:
+ * <ol>
+ * <li>when it is received, i.e., when its event handler is called;</li>
+ * <li>when it has been handled, i.e., when the application has decided what to do about it, and the update of the
+ * scene that it scheduled (see {@link RenderScheduler}) has been applied, at the next pulse;</li>
+ * <li>when it has been rendered, i.e., at the end of the next pulse, once the scene has been laid out and handed over
+ * to be drawn.</li>
+ * </ol>
+ * The time between each of these is recorded in a {@link LatencyHistogram}, along with the whole time from the first to
+ * the last. Recording costs a few arithmetic operations per input, one extra update in the pulse that applies it, and
+ * one extra task on the application thread after that pulse; no memory is allocated for it.
+ * <p>
+ * The report can be had at any time, and is also written when the application exits if the system property
+ * {@value #REPORT_PROPERTY} is set, in the same way as the report of the {@link apptemplate.StartupProfiler}: to the
+ * standard output if it is {@code true}, or else to the file it names, e.g.,
+ * {@code -Djfxframework.latency.report=latency.txt}.
+ */
+public final class InputLatencyTracker {
+
+    public static final String REPORT_PROPERTY = "jfxframework.latency.report";
+
+    private static final int      MAX_PENDING = 64; // how many inputs may await the same pulse
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final LatencyHistogram handling  = new LatencyHistogram(); // from received to handled
+    private final LatencyHistogram rendering = new LatencyHistogram(); // from handled to rendered
+    private final LatencyHistogram total     = new LatencyHistogram(); // from received to rendered
+
+    private final RenderScheduler renderScheduler; // through which the updates for the inputs are applied
+
+    // the inputs whose updates have yet to be applied, and those applied in the current pulse, which it is to render
+    private final long[] decidedReceived = new long[MAX_PENDING];
+    private final long[] pulseReceived   = new long[MAX_PENDING];
+    private final long[] pulseHandled    = new long[MAX_PENDING];
+    private       int    decidedCount, pulseCount;
+
+    private final Runnable updatesApplied = this::updatesApplied;
+    private final Runnable pulseEnd       = this::pulseEnded;
+
+    /**
+     * @param renderScheduler The scheduler through which the scene is updated in response to input, from whose pulses
+     *                        the inputs are then timed.
+     */
+    public InputLatencyTracker(RenderScheduler renderScheduler) {
+        this.renderScheduler = renderScheduler;
+        String destination = System.getProperty(REPORT_PROPERTY);
+        if (destination != null && !destination.isEmpty() && !destination.equalsIgnoreCase("false"))
+            Runtime.getRuntime().addShutdownHook(new Thread(this::dump, "latency-report"));
+    }
+
+    /**
+     * Records that the application has decided what to do about an input, and has scheduled the update of the scene
+     * that reflects it. The input counts as handled once the updates scheduled so far have been applied, at the next
+     * pulse. This is to be called on the application thread, right after scheduling the update.
+     *
+     * @param received When the input was received, as given by {@link System#nanoTime()}.
+     */
+    public void inputDecided(long received) {
+        if (decidedCount == MAX_PENDING)
+            return; // more inputs between two pulses than anyone could type; the rest go untimed until the next pulse
+        decidedReceived[decidedCount++] = received;
+        renderScheduler.schedule(updatesApplied);
+    }
+
+    /** Runs in the pulse that applies the updates for the inputs decided since the last, after those updates. */
+    private void updatesApplied() {
+        long handled = System.nanoTime();
+        if (pulseCount == 0)
+            RenderScheduler.afterPulse(pulseEnd);
+        for (int i = 0; i < decidedCount && pulseCount < MAX_PENDING; i++) {
+            handling.record(handled - decidedReceived[i]);
+            pulseReceived[pulseCount] = decidedReceived[i];
+            pulseHandled[pulseCount++] = handled;
+        }
+        decidedCount = 0;
+    }
+
+    private void pulseEnded() {
+        long rendered = System.nanoTime();
+        for (int i = 0; i < pulseCount; i++) {
+            rendering.record(rendered - pulseHandled[i]);
+            total.record(rendered - pulseReceived[i]);
+        }
+        pulseCount = 0;
+    }
+
+    public LatencyHistogram getHandling() {
+        return handling;
+    }
+
+    public LatencyHistogram getRendering() {
+        return rendering;
+    }
+
+    public LatencyHistogram getTotal() {
+        return total;
+    }
+
+    /** @return a summary of the latencies, in milliseconds, followed by the counts in each histogram bucket. */
+    public String report() {
+        StringBuilder report = new StringBuilder(String.format("Input latency (ms): %12s", "count"));
+        for (double percentile : PERCENTILES)
+            report.append(String.format(" %9s", "p" + (percentile == (int) percentile ? Integer.toString((int) percentile)
+                                                                                      : Double.toString(percentile))));
+        report.append(String.format(" %9s", "max"));
+        summarize(report, "received to handled", handling);
+        summarize(report, "handled to rendered", rendering);
+        summarize(report, "received to rendered", total);
+        report.append(String.format("%n%nBuckets (ns), as lowest,highest,count:"));
+        bucket(report, "received to handled", handling);
+        bucket(report, "handled to rendered", rendering);
+        bucket(report, "received to rendered", total);
+        return report.toString();
+    }
+
+    private static void summarize(StringBuilder report, String name, LatencyHistogram histogram) {
+        report.append(String.format("%n  %-20s %9d", name, histogram.getCount()));
+        for (double percentile : PERCENTILES)
+            report.append(String.format(" %9.2f", histogram.getValueAtPercentile(percentile) / 1e6));
+        report.append(String.format(" %9.2f", histogram.getMax() / 1e6));
+    }
+
+    private static void bucket(StringBuilder report, String name, LatencyHistogram histogram) {
+        report.append(String.format("%n%s%n", name));
+        histogram.appendBuckets(report);
+    }
+
+    /**
+     * Writes the report to a file, replacing whatever the file held.
+     *
+     * @param file The file to which to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public void export(Path file) throws IOException {
+        Files.write(file, (report() + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes the report to the file named by {@value #REPORT_PROPERTY}, or else prints it to the standard output (e.g.,
+     * when the report is asked for on demand, without the property being set).
+     */
+    public void dump() {
+        String destination = System.getProperty(REPORT_PROPERTY);
+        if (destination == null || destination.isEmpty() || destination.equalsIgnoreCase("false")
+            || destination.equalsIgnoreCase("true")) {
+            System.out.println(report());
+            return;
+        }
+        try {
+            export(Paths.get(destination));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package ui;
+
+import javafx.scene.Node;
+import javafx.scene.layout.StackPane;
+
+import java.util.function.Supplier;
+
+/**
+ * A region of a workspace whose content is only built when it is first needed, so that it does not hold up the start
+ * of the application. Until then, the region is an empty pane, which takes the place of the content in the layout.
+ * <p>
+ * The content is built the first time it is asked for (see {@link #get()}), or else when the application is first
+ * idle, if the region is pre-warmed (see {@link #prewarm()}), so that it is usually ready by the time it is needed,
+ * without the start-up having waited for it.
+ *
+ * @param <T> The type of the content.
+ */
+public class LazyRegion<T extends Node> extends StackPane {
+
+    private final Supplier<T> builder;
+    private       T           content;
+
+    /** @param builder Builds the content of the region, on the JavaFX application thread, once. */
+    public LazyRegion(Supplier<T> builder) {
+        this.builder = builder;
+    }
+
+    /** @return the content of the region, which is built (and shown) now if it has not been built yet. */
+    public T get() {
+        if (content == null) {
+            content = builder.get();
+            getChildren().setAll(content);
+        }
+        return content;
+    }
+
+    public boolean isBuilt() {
+        return content != null;
+    }
+
+    /**
+     * Builds the content once the next frame has been shown, e.g., once the window has come up for the first time,
+     * unless it has been built by then.
+     */
+    public void prewarm() {
+        if (content != null)
+            return;
+        RenderScheduler.afterNextPulse(this::get);
+    }
+}
@@ -0,0 +1,197 @@
+package ui;
+
+import javafx.animation.AnimationTimer;
+import javafx.geometry.VPos;
+import javafx.scene.Scene;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * A small readout, drawn over the workspace, of how hard the JavaFX application thread is working. Every half second
+ * it shows:
+ * <ul>
+ * <li>the frame rate, i.e., the number of pulses per second;</li>
+ * <li>the average and longest duration of a pulse, measured from its animation phase, when this overlay's timer runs,
+ * to the end of the pulse on the application thread;</li>
+ * <li>the time spent applying CSS to, and laying out, the scene on each pulse, once the updates of that pulse have been
+ * made;</li>
+ * <li>the rate at which the application thread allocates memory (where the JVM can tell);</li>
+ * <li>the time from each of the last few inputs (see {@link #inputReceived(long)}) to the end of the pulse that first
+ * rendered its effects.</li>
+ * </ul>
+ * Nothing is measured unless the overlay is shown: a hidden overlay has no timer running, and ignores any input.
+ * <p>
+ * To measure CSS and layout, the overlay applies them to the scene itself, from its timer. Whatever it does there is
+ * then already done when the pulse gets to CSS and layout, so this moves that work rather than adding to it. Since the
+ * timer may well run before the updates scheduled for the same pulse (see {@link RenderScheduler}), which would leave
+ * most of the work to be done after it, the overlay first runs those updates itself, and only then times CSS and
+ * layout.
+ */
+public final class PerformanceOverlay {
+
+    private static final long   REFRESH_INTERVAL_NS = 500_000_000L; // how often the readout is refreshed
+    private static final int    LATENCIES_SHOWN     = 5;            // how many of the latest input latencies are shown
+    private static final double OFFSET              = 8;            // the distance from the corner of the workspace
+
+    private final RenderScheduler renderScheduler; // whose updates are made before CSS and layout are timed
+    private final Text            readout   = new Text();
+    private final ThreadMXBean    threads   = ManagementFactory.getThreadMXBean();
+    private final long[]          latencies = new long[LATENCIES_SHOWN]; // the latest input latencies, as a ring
+    private       int             latencyCount;
+    private       long            windowStart;   // when the current refresh interval started, or 0 if it has not
+    private       long            windowAllocated;
+    private       long            frames;
+    private       long            pulseTotal, pulseMax, layoutTotal;
+    private       long            pulseStart;
+    private       long            pendingInput;  // when the oldest input not yet taken up by a pulse came, or 0
+    private       long            inputInPulse;  // when the oldest input rendered by the current pulse came, or 0
+    private       boolean         showing;
+
+    private final Runnable        pulseEnd = this::pulseEnded;
+    private final AnimationTimer  timer    = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            pulseStarted();
+        }
+    };
+
+    /**
+     * @param renderScheduler The scheduler through which the scene is updated, whose updates are to be made before CSS
+     *                        and layout are timed on each pulse.
+     */
+    public PerformanceOverlay(RenderScheduler renderScheduler) {
+        this.renderScheduler = renderScheduler;
+        readout.setTextOrigin(VPos.TOP);
+        readout.setFont(Font.font("Monospaced", 12));
+        readout.setFill(Color.DARKRED);
+        readout.setManaged(false);
+        readout.setMouseTransparent(true);
+        readout.relocate(OFFSET, OFFSET);
+    }
+
+    /**
+     * Shows the overlay over a pane, and starts measuring.
+     *
+     * @param pane The pane over which to show the overlay. The overlay is added to it, but left out of its layout.
+     */
+    public void show(Pane pane) {
+        if (readout.getParent() != pane) {
+            if (readout.getParent() != null)
+                ((Pane) readout.getParent()).getChildren().remove(readout);
+            pane.getChildren().add(readout);
+        }
+        readout.toFront();
+        if (!showing) {
+            showing = true;
+            windowStart = 0;
+            pendingInput = 0;
+            latencyCount = 0;
+            readout.setText("measuring...");
+            timer.start();
+        }
+    }
+
+    /** Hides the overlay, and stops measuring. */
+    public void hide() {
+        if (showing) {
+            showing = false;
+            timer.stop();
+            if (readout.getParent() != null)
+                ((Pane) readout.getParent()).getChildren().remove(readout);
+        }
+    }
+
+    public boolean isShowing() {
+        return showing;
+    }
+
+    /**
+     * Notes that an input (e.g., a key press) has just been decided on, and the update that reflects it scheduled, so
+     * that the time until its effects are rendered can be reported. This is to be called on the application thread, and does nothing unless the overlay is shown.
+     *
+     * @param time When the input came, as given by {@link System#nanoTime()}.
+     */
+    public void inputReceived(long time) {
+        if (showing && pendingInput == 0)
+            pendingInput = time;
+    }
+
+    private void pulseStarted() {
+        long start = System.nanoTime();
+        if (windowStart == 0) {
+            startWindow(start);
+        } else if (start - windowStart >= REFRESH_INTERVAL_NS) {
+            refresh(start);
+            startWindow(start);
+        }
+
+        inputInPulse = pendingInput;
+        pendingInput = 0;
+        renderScheduler.flush(); // the updates of this pulse, which CSS and layout are then applied to
+        long  layoutStart = System.nanoTime();
+        Scene scene       = readout.getScene();
+        if (scene != null) {
+            scene.getRoot().applyCss();
+            scene.getRoot().layout();
+        }
+        pulseStart = start;
+        layoutTotal += System.nanoTime() - layoutStart;
+        frames++;
+        RenderScheduler.afterPulse(pulseEnd);
+    }
+
+    private void pulseEnded() {
+        if (!showing)
+            return;
+        long end      = System.nanoTime();
+        long duration = end - pulseStart;
+        pulseTotal += duration;
+        pulseMax = Math.max(pulseMax, duration);
+        if (inputInPulse != 0) {
+            latencies[latencyCount++ % LATENCIES_SHOWN] = end - inputInPulse;
+            inputInPulse = 0;
+        }
+    }
+
+    private void startWindow(long start) {
+        windowStart = start;
+        windowAllocated = allocatedBytes();
+        frames = 0;
+        pulseTotal = 0;
+        pulseMax = 0;
+        layoutTotal = 0;
+    }
+
+    private void refresh(long now) {
+        double        seconds   = (now - windowStart) / 1e9;
+        long          allocated = allocatedBytes();
+        StringBuilder text      = new StringBuilder(160);
+        text.append(String.format("%6.1f fps%n", frames / seconds));
+        text.append(String.format("pulse      %6.2f ms (max %.2f)%n", frames == 0 ? 0 : pulseTotal / 1e6 / frames, pulseMax / 1e6));
+        text.append(String.format("css/layout %6.2f ms%n", frames == 0 ? 0 : layoutTotal / 1e6 / frames));
+        if (allocated < 0 || windowAllocated < 0)
+            text.append("alloc         n/a").append(System.lineSeparator());
+        else
+            text.append(String.format("alloc      %6.2f MB/s%n", (allocated - windowAllocated) / seconds / (1 << 20)));
+        text.append("key latency");
+        for (int i = Math.max(0, latencyCount - LATENCIES_SHOWN); i < latencyCount; i++)
+            text.append(String.format(" %.1f", latencies[i % LATENCIES_SHOWN] / 1e6));
+        text.append(latencyCount == 0 ? " -" : " ms");
+        readout.setText(text.toString());
+    }
+
+    /** @return the bytes allocated by the application thread so far, or -1 if the JVM cannot tell. */
+    private long allocatedBytes() {
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotspotThreads = (com.sun.management.ThreadMXBean) threads;
+            if (hotspotThreads.isThreadAllocatedMemorySupported() && hotspotThreads.isThreadAllocatedMemoryEnabled())
+                return hotspotThreads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,91 @@
+package ui;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects updates to the scene and applies them together, once per pulse, instead of as soon as each is asked for.
+ * <p>
+ * An update is meant to bring (part of) the scene up to date with the application's state as it stands when it runs,
+ * e.g., by rendering the latest view of a game, rather than to apply one particular change. An update scheduled any
+ * number of times before the next pulse therefore runs only once, so that however fast input comes, e.g., from a bot,
+ * the scene is updated at most once per frame, and nothing piles up on the application thread.
+ * <p>
+ * The updates run in the animation phase of the pulse, i.e., before CSS, layout and rendering, so they still show in
+ * the very frame in which they would have shown had they been applied right away.
+ * <p>
+ * This class is to be used on the JavaFX application thread only.
+ */
+public final class RenderScheduler {
+
+    private       List<Runnable> pending = new ArrayList<>(); // the updates to run at the next pulse, each only once
+    private       List<Runnable> running = new ArrayList<>(); // the updates being run
+    private final AnimationTimer pulse   = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            stop();
+            flush();
+        }
+    };
+
+    /**
+     * Schedules an update for the next pulse, unless it is already scheduled.
+     *
+     * @param update The update.
+     */
+    public void schedule(Runnable update) {
+        for (Runnable scheduled : pending) {
+            if (scheduled == update)
+                return;
+        }
+        pending.add(update);
+        if (pending.size() == 1)
+            pulse.start();
+    }
+
+    /**
+     * Runs a task on the application thread once the current pulse is over, i.e., once the scene has been styled, laid
+     * out and handed to the renderer. This is to be called during the pulse, e.g., from an {@link AnimationTimer}, which
+     * runs before all of that; the task is queued behind the pulse, so it runs right after it.
+     *
+     * @param task The task.
+     */
+    public static void afterPulse(Runnable task) {
+        Platform.runLater(task);
+    }
+
+    /**
+     * Runs a task on the application thread once the next pulse is over (see {@link #afterPulse(Runnable)}), e.g.,
+     * once the window has come up for the first time.
+     *
+     * @param task The task.
+     */
+    public static void afterNextPulse(Runnable task) {
+        new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                stop();
+                afterPulse(task);
+            }
+        }.start();
+    }
+
+    /**
+     * Runs the scheduled updates right away, e.g., when the scene must be up to date before something else can
+     * happen. Any update that these schedule in turn runs at the next pulse.
+     */
+    public void flush() {
+        List<Runnable> updates = pending;
+        pending = running;
+        running = updates;
+        try {
+            for (Runnable update : updates)
+                update.run();
+        } finally {
+            updates.clear();
+        }
+    }
+}
@@ -3,7 +3,9 @@ package xmlutils;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
+import org.xml.sax.ErrorHandler;
 import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -15,8 +17,12 @@ import javax.xml.validation.SchemaFactory;
 import javax.xml.validation.Validator;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class provides general purpose utilities for the loading and
@@ -34,6 +40,29 @@ public class XMLUtilities {
     // THIS REFERENCES A STANDARD SCHEMA FORMAT. NOTE THIS IS NOT THE SCHEMA
     public static final String SCHEMA_STANDARD_SPEC_URL = "http://www.w3.org/2001/XMLSchema";
 
+    // COMPILED SCHEMAS ARE IMMUTABLE AND THREAD-SAFE, SO THEY ARE SHARED. THE
+    // BUILDERS AND VALIDATORS MADE FROM THEM ARE NOT, SO THEY ARE KEPT PER THREAD.
+    // ALL OF THESE ARE KEYED BY THE URL OF THE SCHEMA.
+    private static final Map<String, Schema>                      schemas          = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Map<String, DocumentBuilder>> documentBuilders = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<Map<String, Validator>>       validators       = ThreadLocal.withInitial(HashMap::new);
+
+    // TURNS EVERY VALIDATION ERROR INTO AN EXCEPTION, INSTEAD OF JUST REPORTING IT
+    private static final ErrorHandler STRICT_ERROR_HANDLER = new ErrorHandler() {
+        @Override
+        public void warning(SAXParseException exception) { }
+
+        @Override
+        public void error(SAXParseException exception) throws SAXException {
+            throw exception;
+        }
+
+        @Override
+        public void fatalError(SAXParseException exception) throws SAXException {
+            throw exception;
+        }
+    };
+
     /**
      * Default Constructor, no data needs to be initialized.
      */
@@ -82,18 +111,78 @@ public class XMLUtilities {
     }
 
     public boolean validateXML(URL datapath, URL schemapath) {
-        SchemaFactory schemaFactory = SchemaFactory.newInstance(SCHEMA_STANDARD_SPEC_URL);
-        try {
-            Schema    schema    = schemaFactory.newSchema(schemapath);
-            Validator validator = schema.newValidator();
-            Source    source    = new StreamSource(datapath.openStream());
-            validator.validate(source);
+        try (InputStream in = datapath.openStream()) {
+            Validator validator = getValidator(schemapath);
+            validator.validate(new StreamSource(in, datapath.toExternalForm()));
             return true;
         } catch (SAXException | IOException e) {
             return false;
         }
     }
 
+    /**
+     * Validates a document against the schema at the given URL, reading the
+     * document only once. Whoever supplies the source may read the document as
+     * the validator goes through it (e.g., through a filtered StAX reader), so
+     * that validating and reading take a single pass over the document.
+     *
+     * @param source     The document to validate.
+     * @param schemapath The schema to validate it against.
+     * @throws SAXException Thrown if the document (or the schema) is not valid.
+     * @throws IOException  Thrown if the document cannot be read.
+     */
+    public void validate(Source source, URL schemapath) throws SAXException, IOException {
+        getValidator(schemapath).validate(source);
+    }
+
+    /**
+     * Returns the schema found at the given URL, compiling it only the first
+     * time it is asked for.
+     *
+     * @param schemaURL The location of the schema.
+     * @return The compiled schema.
+     * @throws SAXException Thrown if the schema itself is not valid.
+     */
+    public Schema getSchema(URL schemaURL) throws SAXException {
+        String key    = schemaURL.toExternalForm();
+        Schema schema = schemas.get(key);
+        if (schema == null) {
+            // SCHEMA FACTORIES ARE NOT THREAD-SAFE, BUT ARE ONLY NEEDED ONCE PER SCHEMA
+            schema = SchemaFactory.newInstance(SCHEMA_STANDARD_SPEC_URL).newSchema(schemaURL);
+            Schema cached = schemas.putIfAbsent(key, schema);
+            if (cached != null)
+                schema = cached;
+        }
+        return schema;
+    }
+
+    private Validator getValidator(URL schemaURL) throws SAXException {
+        Validator validator = validators.get().get(schemaURL.toExternalForm());
+        if (validator == null) {
+            validator = getSchema(schemaURL).newValidator();
+            validators.get().put(schemaURL.toExternalForm(), validator);
+        } else {
+            validator.reset();
+        }
+        validator.setErrorHandler(STRICT_ERROR_HANDLER);
+        return validator;
+    }
+
+    private DocumentBuilder getValidatingDocumentBuilder(URL schemaURL) throws SAXException, ParserConfigurationException {
+        DocumentBuilder builder = documentBuilders.get().get(schemaURL.toExternalForm());
+        if (builder == null) {
+            DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+            documentBuilderFactory.setNamespaceAware(true);
+            documentBuilderFactory.setSchema(getSchema(schemaURL));
+            builder = documentBuilderFactory.newDocumentBuilder();
+            documentBuilders.get().put(schemaURL.toExternalForm(), builder);
+        } else {
+            builder.reset();
+        }
+        builder.setErrorHandler(STRICT_ERROR_HANDLER);
+        return builder;
+    }
+
     /**
      * This method reads in the xmlFile, validates it against the
      * schemaFile, and if valid, loads it into a WhitespaceFreeXMLDoc
@@ -133,16 +222,26 @@ public class XMLUtilities {
         }
     }
 
+    /**
+     * This method reads in the xml file, validating it against the schema
+     * as it is being parsed, so that the file is only read once. The
+     * compiled schema and the parser are reused across calls.
+     *
+     * @param xmlFileURL    Location of the xml file to load.
+     * @param schemaFileURL Location of the schema file to use for validation.
+     * @return A normalized Document object fully loaded with the data found
+     * in the xml file.
+     * @throws InvalidXMLFileFormatException Thrown if the xml file validation fails.
+     */
     public Document loadXMLDocument(URL xmlFileURL, URL schemaFileURL) throws InvalidXMLFileFormatException {
-        if (!validateXML(xmlFileURL, schemaFileURL))
-            throw new InvalidXMLFileFormatException(xmlFileURL.getFile(), schemaFileURL.getFile());
-        DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
-        try {
-            DocumentBuilder builder  = documentBuilderFactory.newDocumentBuilder();
-            Document        document = builder.parse(xmlFileURL.openStream());
+        try (InputStream in = xmlFileURL.openStream()) {
+            DocumentBuilder builder  = getValidatingDocumentBuilder(schemaFileURL);
+            Document        document = builder.parse(in, xmlFileURL.toExternalForm());
             document.getDocumentElement().normalize();
             return document;
-        } catch (ParserConfigurationException | IOException | SAXException e) {
+        } catch (SAXException e) {
+            throw new InvalidXMLFileFormatException(xmlFileURL.getFile(), schemaFileURL.getFile());
+        } catch (ParserConfigurationException | IOException e) {
             throw new InvalidXMLFileFormatException(xmlFileURL.getFile());
         }
     }